@@ -0,0 +1,69 @@
+package benchmarks;
+
+import data.BattleEngine;
+import data.BattleResult;
+import data.ExpectimaxMoveSelector;
+import data.MoveSelector;
+import data.Team;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import utils.TeamGenerator;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a full headless battle between two teams of one to six Palmons, cycling through fixed random teams.
+ * The teams are not changed by the engine, so they can be fought with again.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BattleBenchmark {
+    private static final int TEAM_PAIRS = 64;
+
+    /**
+     * The strategy of both sides.
+     */
+    @Param({"random", "greedy", "expectimax"})
+    public String selector;
+
+    private final Team[] playerTeams = new Team[TEAM_PAIRS];
+    private final Team[] opponentTeams = new Team[TEAM_PAIRS];
+    private BattleEngine engine;
+    private int next;
+
+    @Setup
+    public void setup(CatalogueState catalogue) {
+        TeamGenerator generator = new TeamGenerator(new TeamGenerator.Spec(1, 6, 1, 100, new int[0], 42));
+        for (int i = 0; i < TEAM_PAIRS; i++) {
+            playerTeams[i] = generator.nextTeam();
+            opponentTeams[i] = generator.nextTeam();
+        }
+        MoveSelector moveSelector = switch (selector) {
+            case "random" -> MoveSelector.RANDOM;
+            case "greedy" -> MoveSelector.GREEDY;
+            case "expectimax" -> new ExpectimaxMoveSelector();
+            default -> throw new IllegalArgumentException("Unknown selector " + selector);
+        };
+        engine = new BattleEngine(moveSelector, moveSelector, new SplittableRandom(42));
+    }
+
+    @Benchmark
+    public BattleResult battle() {
+        int i = next++ & (TEAM_PAIRS - 1);
+        return engine.run(playerTeams[i], opponentTeams[i]);
+    }
+}
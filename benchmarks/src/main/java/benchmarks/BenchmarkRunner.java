@@ -0,0 +1,152 @@
+package benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Runs the benchmarks and keeps their results, so the scores can be compared over time.
+ * Every run writes its results to benchmarks/results/&lt;date&gt;.csv and compares them to
+ * benchmarks/results/baseline.csv if it exists. Build and run it from the repository root:
+ * <pre>
+ *     mvn -B package
+ *     java -jar benchmarks/target/benchmarks.jar [JMH options] [benchmark regex] [--save-baseline]
+ * </pre>
+ * The JMH options, for example -wi and -i for the warmup and measurement iterations, are passed on to JMH.
+ * With --save-baseline the results of the run become the new baseline.
+ */
+public class BenchmarkRunner {
+    public static final Path RESULTS_DIRECTORY = Path.of("benchmarks", "results");
+    public static final Path BASELINE = RESULTS_DIRECTORY.resolve("baseline.csv");
+
+    public static void main(String[] args) throws RunnerException, IOException, CommandLineOptionException {
+        List<String> jmhArgs = new ArrayList<>();
+        boolean saveBaseline = false;
+        for (String arg : args) {
+            if (arg.equals("--save-baseline")) {
+                saveBaseline = true;
+            } else {
+                jmhArgs.add(arg);
+            }
+        }
+        CommandLineOptions commandLine = new CommandLineOptions(jmhArgs.toArray(new String[0]));
+        if (commandLine.shouldHelp() || commandLine.shouldList() || commandLine.shouldListProfilers()
+                || commandLine.shouldListResultFormats() || commandLine.shouldListWithParams()) {
+            org.openjdk.jmh.Main.main(jmhArgs.toArray(new String[0]));
+            return;
+        }
+        if (!Files.isDirectory(Path.of("src", "resources"))) {
+            System.out.println("@BenchmarkRunner: The game data was not found, run the benchmarks from the repository root");
+            System.exit(1);
+        }
+
+        Files.createDirectories(RESULTS_DIRECTORY);
+        Path results = RESULTS_DIRECTORY.resolve(
+                LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".csv");
+        Options options = new OptionsBuilder()
+                .parent(commandLine)
+                .resultFormat(ResultFormatType.CSV)
+                .result(results.toString())
+                .build();
+        new Runner(options).run();
+
+        if (Files.exists(BASELINE)) {
+            printComparison(readScores(BASELINE), readScores(results));
+        }
+        if (saveBaseline) {
+            Files.copy(results, BASELINE, StandardCopyOption.REPLACE_EXISTING);
+            System.out.println("Saved " + results + " as the baseline");
+        }
+    }
+
+    /**
+     * Prints the change of every score against the baseline. All benchmarks measure the average time,
+     * so a ratio above 1 means the benchmark got slower.
+     *
+     * @param baseline the scores of the baseline
+     * @param current  the scores of the current run
+     * Time Complexity: O(n) where n is the number of benchmarks
+     */
+    private static void printComparison(Map<String, Double> baseline, Map<String, Double> current) {
+        System.out.println();
+        System.out.println("Compared to " + BASELINE + " (ratio > 1 is slower):");
+        for (Map.Entry<String, Double> entry : current.entrySet()) {
+            Double before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.printf(Locale.ROOT, "%-70s %12.3f  (new)%n", entry.getKey(), entry.getValue());
+            } else {
+                System.out.printf(Locale.ROOT, "%-70s %12.3f  %6.2fx%n", entry.getKey(), entry.getValue(),
+                        entry.getValue() / before);
+            }
+        }
+    }
+
+    /**
+     * Reads the scores of a result file written by JMH. The key of a score is the benchmark name
+     * followed by the values of its parameters.
+     *
+     * @param file the result file
+     * @return the scores by benchmark, in file order
+     * @throws IOException if the file cannot be read
+     * Time Complexity: O(n) where n is the size of the file
+     */
+    private static Map<String, Double> readScores(Path file) throws IOException {
+        Map<String, Double> scores = new LinkedHashMap<>();
+        List<String> lines = Files.readAllLines(file);
+        if (lines.isEmpty()) {
+            return scores;
+        }
+        List<String> header = splitLine(lines.get(0));
+        int benchmarkColumn = header.indexOf("Benchmark");
+        int scoreColumn = header.indexOf("Score");
+        for (String line : lines.subList(1, lines.size())) {
+            List<String> fields = splitLine(line);
+            StringBuilder key = new StringBuilder(fields.get(benchmarkColumn));
+            for (int i = 0; i < header.size() && i < fields.size(); i++) {
+                if (header.get(i).startsWith("Param: ") && !fields.get(i).isEmpty()) {
+                    key.append(' ').append(fields.get(i));
+                }
+            }
+            scores.put(key.toString(), Double.parseDouble(fields.get(scoreColumn)));
+        }
+        return scores;
+    }
+
+    /**
+     * Splits a line of a JMH result file into its fields, removing the quotes around them.
+     */
+    private static List<String> splitLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '"') {
+                quoted = !quoted;
+            } else if (c == ',' && !quoted) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,24 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import service.DataIngestingService;
+import service.DataStorageService;
+
+/**
+ * Loads the game data once per benchmark, the same way the game does at startup.
+ * The data is read from src/resources, so the benchmarks have to run from the repository root.
+ */
+@State(Scope.Benchmark)
+public class CatalogueState {
+
+    @Setup(Level.Trial)
+    public void load() {
+        DataIngestingService.loadAndStoreCSVFiles().join();
+        if (DataStorageService.getPalmons().isEmpty()) {
+            throw new IllegalStateException("No Palmons were loaded, run the benchmarks from the repository root");
+        }
+    }
+}
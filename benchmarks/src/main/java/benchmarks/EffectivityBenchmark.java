@@ -0,0 +1,62 @@
+package benchmarks;
+
+import data.MoveSpec;
+import data.PalmonSpecies;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import service.DataStorageService;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures looking up the effectivity of a move against a Palmon, by type ordinals as the BattleEngine does
+ * and by type names.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EffectivityBenchmark {
+    private static final int SAMPLE_SIZE = 1024;
+
+    private final MoveSpec[] moves = new MoveSpec[SAMPLE_SIZE];
+    private final PalmonSpecies[] defenders = new PalmonSpecies[SAMPLE_SIZE];
+    private int next;
+
+    @Setup
+    public void setup(CatalogueState catalogue) {
+        SplittableRandom random = new SplittableRandom(42);
+        List<MoveSpec> allMoves = DataStorageService.getMoves();
+        List<PalmonSpecies> allPalmons = DataStorageService.getPalmons();
+        for (int i = 0; i < SAMPLE_SIZE; i++) {
+            moves[i] = allMoves.get(random.nextInt(allMoves.size()));
+            defenders[i] = allPalmons.get(random.nextInt(allPalmons.size()));
+        }
+    }
+
+    @Benchmark
+    public float byOrdinal() {
+        int i = next++ & (SAMPLE_SIZE - 1);
+        return DataStorageService.getEffectivityMultiplier(moves[i].getTypeOrdinal(),
+                defenders[i].getPrimaryTypeOrdinal(), defenders[i].getSecondaryTypeOrdinal());
+    }
+
+    @Benchmark
+    public float byName() {
+        int i = next++ & (SAMPLE_SIZE - 1);
+        return DataStorageService.getEffectivityMultiplier(moves[i].getType(), defenders[i].getPrimaryType())
+                * DataStorageService.getEffectivityMultiplier(moves[i].getType(), defenders[i].getSecondaryType());
+    }
+}
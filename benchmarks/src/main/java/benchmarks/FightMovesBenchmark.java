@@ -0,0 +1,52 @@
+package benchmarks;
+
+import data.Palmon;
+import data.PalmonSpecies;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import service.DataStorageService;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures assigning the fight moves of a Palmon for its level, cycling through random species and levels.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FightMovesBenchmark {
+    private static final int SAMPLE_SIZE = 1024;
+
+    private final Palmon[] palmons = new Palmon[SAMPLE_SIZE];
+    private int next;
+
+    @Setup
+    public void setup(CatalogueState catalogue) {
+        SplittableRandom random = new SplittableRandom(42);
+        List<PalmonSpecies> species = DataStorageService.getPalmons();
+        for (int i = 0; i < SAMPLE_SIZE; i++) {
+            palmons[i] = new Palmon(species.get(random.nextInt(species.size())));
+            palmons[i].setLevel(random.nextInt(1, 101));
+        }
+    }
+
+    @Benchmark
+    public Palmon setFightMoves() {
+        Palmon palmon = palmons[next++ & (SAMPLE_SIZE - 1)];
+        palmon.setFightMoves();
+        return palmon;
+    }
+}
@@ -0,0 +1,69 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import service.DataLoadingService;
+import utils.DataHandling.CSVReader;
+import utils.DataHandling.DataParser;
+
+import java.io.IOException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures reading and parsing one CSV file with the CSVReader and its DataParser, into a fresh parser per call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IngestionBenchmark {
+
+    @Param({"palmon", "moves", "palmon_move", "effectivity"})
+    public String file;
+
+    @Param({"sequential", "parallel"})
+    public String mode;
+
+    @Benchmark
+    public Object parse() throws IOException {
+        ForkJoinPool pool = mode.equals("parallel") ? ForkJoinPool.commonPool() : null;
+        return switch (file) {
+            case "palmon" -> {
+                DataParser.PalmonParser parser = new DataParser.PalmonParser();
+                read(parser, pool);
+                yield parser.getData();
+            }
+            case "moves" -> {
+                DataParser.MoveParser parser = new DataParser.MoveParser();
+                read(parser, pool);
+                yield parser.getData();
+            }
+            case "palmon_move" -> {
+                DataParser.PalmonMoveParser parser = new DataParser.PalmonMoveParser();
+                read(parser, pool);
+                yield parser.getData();
+            }
+            case "effectivity" -> {
+                DataParser.EffectivityParser parser = new DataParser.EffectivityParser();
+                read(parser, pool);
+                yield parser.getData();
+            }
+            default -> throw new IllegalArgumentException("Unknown file " + file);
+        };
+    }
+
+    private void read(DataParser parser, ForkJoinPool pool) throws IOException {
+        new CSVReader(DataLoadingService.csvPath(file), parser, pool, CSVReader.DEFAULT_CHUNK_SIZE).read();
+    }
+}
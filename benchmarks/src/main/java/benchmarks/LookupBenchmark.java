@@ -0,0 +1,64 @@
+package benchmarks;
+
+import data.MoveSpec;
+import data.PalmonSpecies;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import service.DataStorageService;
+
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures looking up Palmons and moves by ID. The IDs cycle through a shuffled sample that also contains
+ * IDs without a Palmon or move, so both hits and misses are measured.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LookupBenchmark {
+    private static final int SAMPLE_SIZE = 1024;
+
+    private final int[] palmonIds = new int[SAMPLE_SIZE];
+    private final int[] moveIds = new int[SAMPLE_SIZE];
+    private int next;
+
+    @Setup
+    public void setup(CatalogueState catalogue) {
+        SplittableRandom random = new SplittableRandom(42);
+        int maxPalmonId = 0;
+        for (PalmonSpecies palmon : DataStorageService.getPalmons()) {
+            maxPalmonId = Math.max(maxPalmonId, palmon.getId());
+        }
+        int maxMoveId = 0;
+        for (MoveSpec move : DataStorageService.getMoves()) {
+            maxMoveId = Math.max(maxMoveId, move.getId());
+        }
+        for (int i = 0; i < SAMPLE_SIZE; i++) {
+            palmonIds[i] = random.nextInt(maxPalmonId + 2);
+            moveIds[i] = random.nextInt(maxMoveId + 2);
+        }
+    }
+
+    @Benchmark
+    public Optional<PalmonSpecies> getPalmonById() {
+        return DataStorageService.getPalmonById(palmonIds[next++ & (SAMPLE_SIZE - 1)]);
+    }
+
+    @Benchmark
+    public Optional<MoveSpec> getMoveById() {
+        return DataStorageService.getMoveById(moveIds[next++ & (SAMPLE_SIZE - 1)]);
+    }
+}
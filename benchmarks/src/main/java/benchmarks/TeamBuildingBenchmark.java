@@ -0,0 +1,64 @@
+package benchmarks;
+
+import data.Team;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import utils.TeamGenerator;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures building teams the way the TeamBuilder does once the questions are answered: a TeamGenerator is
+ * created for the spec and generates one team. Generating only the compact team records with a reused
+ * generator is measured as well.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TeamBuildingBenchmark {
+
+    /**
+     * The types to choose the Palmons from, comma-separated, or "all" for all Palmons.
+     */
+    @Param({"all", "fire,water"})
+    public String types;
+
+    private TeamGenerator.Spec spec;
+    private TeamGenerator generator;
+    private final int[] speciesOrdinals = new int[6];
+    private final int[] levels = new int[6];
+    private long seed;
+
+    @Setup
+    public void setup(CatalogueState catalogue) {
+        List<String> typeList = types.equals("all") ? List.of() : Arrays.asList(types.split(","));
+        spec = TeamGenerator.Spec.ofTypes(1, 6, 1, 100, typeList, 42);
+        generator = new TeamGenerator(spec);
+    }
+
+    @Benchmark
+    public Team buildTeam() {
+        TeamGenerator.Spec seeded = new TeamGenerator.Spec(spec.getMinSize(), spec.getMaxSize(),
+                spec.getMinLevel(), spec.getMaxLevel(), spec.getTypeOrdinals(), seed++);
+        return new TeamGenerator(seeded).nextTeam();
+    }
+
+    @Benchmark
+    public int generateRecord() {
+        return generator.next(speciesOrdinals, levels);
+    }
+}
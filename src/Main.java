@@ -2,29 +2,85 @@ import data.Battle;
 import data.Player;
 import data.Team;
 import service.DataIngestingService;
+import service.MetricsService;
+import utils.ConsoleHelpers.InputManager;
+import utils.ConsoleHelpers.ScriptInputSource;
 import utils.LocaleManager;
 import utils.TeamBuilder;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
+/**
+ * Starts the game. Options:
+ * <pre>
+ *     --script &lt;file&gt;  read the answers from a script file instead of the console, see ScriptInputSource
+ *     --delay &lt;ms&gt;     the pause between the steps of a battle, 0 by default with a script
+ * </pre>
+ */
 public class Main {
+    public static final String SCRIPT_OPTION = "--script";
+    public static final String DELAY_OPTION = "--delay";
 
     public static void main(String[] args) {
+        Integer battleDelay = null;
+        for (int i = 0; i < args.length; i++) {
+            boolean hasValue = i + 1 < args.length;
+            if (args[i].equals(SCRIPT_OPTION) && hasValue) {
+                try {
+                    InputManager.setSource(new ScriptInputSource(Path.of(args[++i])));
+                } catch (IOException e) {
+                    System.out.println("@Main: Could not open the script " + e);
+                    System.exit(1);
+                }
+                battleDelay = battleDelay == null ? 0 : battleDelay;
+            } else if (args[i].equals(DELAY_OPTION) && hasValue && args[i + 1].matches("\\d{1,9}")) {
+                battleDelay = Integer.parseInt(args[++i]);
+            } else {
+                System.out.println("Usage: Main [" + SCRIPT_OPTION + " <file>] [" + DELAY_OPTION + " <ms>]");
+                System.exit(1);
+            }
+        }
+
+        // Dump the metrics periodically, they can also be shown with /stats at any prompt
+        MetricsService.startDump(MetricsService.DUMP_PATH, MetricsService.DEFAULT_DUMP_INTERVAL);
+
         // Load and store CSV files asynchronously
         CompletableFuture<Void> dataIngestion = DataIngestingService.loadAndStoreCSVFiles();
 
+        // Load the messages of all languages asynchronously, alongside the CSV files
+        CompletableFuture<Void> messageLoading = LocaleManager.loadBundles();
+
+        try {
+            messageLoading.join();
+        } catch (CompletionException e) {
+            System.out.println("@Main: Could not load the messages " + e.getCause());
+            System.exit(1);
+        }
+
         // Initialize LocaleManager for language support, defaults to English
         LocaleManager.initialize();
 
         // Initialize or load the user profile
         Player.initializeOrLoadProfile();
 
-        dataIngestion.join(); // Wait for the async process to complete
+        try {
+            dataIngestion.join(); // Wait for the async process to complete
+        } catch (CompletionException e) {
+            System.out.println("@Main: Could not load the game data " + e.getCause());
+            System.exit(1);
+        }
 
         Team userteam = TeamBuilder.createUserTeam();
         Team opponentTeam = TeamBuilder.createOpponentTeam();
 
         Battle battle = new Battle(userteam, opponentTeam);
+        if (battleDelay != null) {
+            battle.setDelay(battleDelay);
+        }
+        battle.setOpponentSelector(Battle.askOpponentSelector());
         battle.startBattle();
 
     }
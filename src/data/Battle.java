@@ -1,14 +1,31 @@
 package data;
 
-import service.DataStorageService;
+import service.MetricsService;
 import utils.ConsoleHelpers.ConsoleColors;
+import utils.ConsoleHelpers.ConsoleOutput;
 import utils.ConsoleHelpers.InputManager;
 import utils.ConsoleHelpers.TableCreator;
 import utils.LocaleManager;
+import utils.Metrics.Histogram;
 
-public class Battle {
-    private Team playerTeam;
-    private Team opponentTeam;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * The Battle class presents a battle between the player's team and the opponent's team on the console.
+ * The game rules are resolved by the BattleEngine; this class renders its events, adds delays between
+ * them and asks the player for their moves.
+ */
+public class Battle implements BattleListener {
+    private static final Histogram playerDecisions = MetricsService.histogram("battle.decision.player.nanos");
+    private static final Histogram opponentDecisions = MetricsService.histogram("battle.decision.opponent.nanos");
+
+    private final Team playerTeam;
+    private final Team opponentTeam;
+    private final BattleLog log = new BattleLog();
+    private MoveSelector opponentSelector = MoveSelector.RANDOM;
+    private boolean firstAttackOfTurn;
+    private int delayMillis = 2000;
 
     public Battle(Team playerTeam, Team opponentTeam) {
         this.playerTeam = playerTeam;
@@ -16,212 +33,200 @@ public class Battle {
     }
 
     /**
-     * Starts the battle between the player's team and the opponent's team.
-     * The battle continues until one of the teams is defeated.
-     * The battle result is saved in the battle history.
-     * Time Complexity: O(n)
+     * Sets the delay between the events of the battle.
+     *
+     * @param delayMillis the delay in milliseconds, 0 for no delay
+     * Time Complexity: O(1)
      */
-    public void startBattle() {
-        System.out.println(ConsoleColors.colorizeAndBold(LocaleManager.getMessage("BATTLE_START"), "green"));
-        sleep(2000);
-
-        while (!isTeamDefeated(playerTeam) && !isTeamDefeated(opponentTeam)) {
-            round();
-        }
-
-        if (isTeamDefeated(playerTeam)) {
-            System.out.println();
-            System.out.println();
-            System.out.println(ConsoleColors.colorize(LocaleManager.getMessage("BATTLE_RESULT_OPPONENT_WINS", Player.getOpponentName()), "red"));
-            System.out.println("I've failed over and over and over again in my life. And that is why I succeed. - Michael Jordan");
-        } else {
-            System.out.println();
-            System.out.println();
-            System.out.println(ConsoleColors.colorize(LocaleManager.getMessage("BATTLE_RESULT_PLAYER_WINS", Player.getUserName()), "green"));
-            TableCreator.printTeam(playerTeam);
-
-        }
+    public void setDelay(int delayMillis) {
+        this.delayMillis = Math.max(0, delayMillis);
     }
 
     /**
-     * Executes a round of the battle.
-     * A round consists of a sequence of attacks between the player's team and the opponent's team.
-     * The round continues until one of the teams is defeated.
-     * The battle status is printed at the beginning of each round.
-     * Time Complexity: O(n^2)
+     * Sets the strategy that chooses the moves of the opponent, MoveSelector.RANDOM by default.
+     *
+     * @param opponentSelector the strategy of the opponent
      */
-    private void round() {
-        int round = 1;
-        int playerTeamPalmonIndex = 0;
-        int opponentTeamPalmonIndex = 0;
-
-        Palmon playerPalmon = playerTeam.getPalmons().get(playerTeamPalmonIndex);
-        Palmon opponentPalmon = opponentTeam.getPalmons().get(opponentTeamPalmonIndex);
-
-        while (!playerTeam.isDefeated() && !opponentTeam.isDefeated()) {
-            while (!playerPalmon.isDefeated() && !opponentPalmon.isDefeated()) {
-                System.out.println();
-                System.out.println(ConsoleColors.colorizeAndBold("\n" + LocaleManager.getMessage("BATTLE_ROUND", round++), "cyan"));
-                System.out.println(ConsoleColors.colorize(playerPalmon.getName(), "blue") + " vs. " + ConsoleColors.colorize(opponentPalmon.getName(), "red"));
-                sleep(2000); // Add a delay before the attack sequence
-                attackSequence(playerPalmon, opponentPalmon);
-            }
-
-            if (playerPalmon.isDefeated()) {
-                System.out.println(ConsoleColors.colorize(LocaleManager.getMessage("BATTLE_STATUS_DEFEATED", playerPalmon.getName()), "red"));
-                playerTeamPalmonIndex++;
-                if (playerTeamPalmonIndex < playerTeam.getPalmons().size()) {
-                    playerPalmon = playerTeam.getPalmons().get(playerTeamPalmonIndex);
-                    sleep(2000); // Add a delay before the next Palmon comes out
-                }
-            } else if (opponentPalmon.isDefeated()) {
-                System.out.println(ConsoleColors.colorize(LocaleManager.getMessage("BATTLE_STATUS_DEFEATED", opponentPalmon.getName()), "green"));
-                opponentTeamPalmonIndex++;
-                if (opponentTeamPalmonIndex < opponentTeam.getPalmons().size()) {
-                    opponentPalmon = opponentTeam.getPalmons().get(opponentTeamPalmonIndex);
-                    sleep(2000); // Add a delay before the next Palmon comes out
-                }
-            }
-        }
-
-        if (playerTeam.isDefeated()) {
-            System.out.println(ConsoleColors.colorize(LocaleManager.getMessage("BATTLE_RESULT_PLAYER_TEAM_DEFEATED", Player.getUserName()), "red"));
-        } else {
-            System.out.println(ConsoleColors.colorize(LocaleManager.getMessage("BATTLE_RESULT_OPPONENT_TEAM_DEFEATED", Player.getOpponentName()), "green"));
-        }
+    public void setOpponentSelector(MoveSelector opponentSelector) {
+        this.opponentSelector = opponentSelector;
     }
 
     /**
-     * Executes a sequence of attacks between the player's Palmon and the opponent's Palmon.
-     * The attack sequence continues until one of the Palmons is defeated.
-     * The attack sequence consists of the player's Palmon attacking first, followed by the opponent's Palmon.
-     * @param playerPalmon the currently active Palmon of the player
-     * @param opponentPalmon the currently active Palmon of the opponent
+     * Asks the player how the opponent should choose its moves.
+     *
+     * @return the chosen strategy
      * Time Complexity: O(1)
      */
-    private void attackSequence(Palmon playerPalmon, Palmon opponentPalmon) {
-        if (playerPalmon.getSpeed() >= opponentPalmon.getSpeed()) {
-            attack(playerPalmon, opponentPalmon);
-            if (!opponentPalmon.isDefeated()) {
-                sleep(2000); // Add a delay before the counterattack
-                attackByOpponent(opponentPalmon, playerPalmon);
-            }
-        } else {
-            attackByOpponent(opponentPalmon, playerPalmon);
-            if (!playerPalmon.isDefeated()) {
-                sleep(2000); // Add a delay before the counterattack
-                attack(playerPalmon, opponentPalmon);
-            }
-        }
+    public static MoveSelector askOpponentSelector() {
+        int choice = InputManager.SelectWithIndex("BATTLE_OPPONENT_STRATEGY_QUESTION",
+                Map.of(1, LocaleManager.getMessage("BATTLE_OPPONENT_STRATEGY_RANDOM"),
+                        2, LocaleManager.getMessage("BATTLE_OPPONENT_STRATEGY_GREEDY"),
+                        3, LocaleManager.getMessage("BATTLE_OPPONENT_STRATEGY_EXPECTIMAX")));
+        return switch (choice) {
+            case 2 -> MoveSelector.GREEDY;
+            case 3 -> new ExpectimaxMoveSelector();
+            default -> MoveSelector.RANDOM;
+        };
     }
 
     /**
-     * Executes an attack from the attacker Palmon to the defender Palmon.
-     * The attacker Palmon chooses a move to use, and the defender Palmon receives the damage.
-     * The attack can miss if the move's accuracy is lower than a random number between 0 and 100.
-     * The attack can be not effective if the damage is lower than 0.
-     * 
-     * @param attacker the Palmon that attacks
-     * @param defender the Palmon that receives the attack
-     * Time Complexity: O(1)
+     * Gets the log of the last battle started by this presenter, which can be replayed with the BattleReplayer.
+     *
+     * @return the log
      */
-    private void attack(Palmon attacker, Palmon defender) {
-        boolean waitForMove = true;
-        int moveChoice = 0;
+    public BattleLog getLog() {
+        return log;
+    }
 
-        System.out.println();
-        System.out.println(ConsoleColors.colorize(LocaleManager.getMessage("BATTLE_YOUR_MOVE", Player.getUserName()), "green"));
+    /**
+     * Starts the battle between the player's team and the opponent's team.
+     * The battle continues until one of the teams is defeated.
+     * Time Complexity: O(t) where t is the number of turns
+     */
+    public void startBattle() {
+        BattleEngine engine = new BattleEngine(timed(this::choosePlayerMove, playerDecisions),
+                timed(opponentSelector, opponentDecisions), new SplittableRandom());
+        engine.setListener(this);
+        engine.setLog(log);
+        engine.run(playerTeam, opponentTeam);
+    }
 
-        checkForMaxUsages(attacker);
-        while (waitForMove) {
-            TableCreator.printPalmonFightMoves(attacker);
-            moveChoice = InputManager.Integer("BATTLE_CHOOSE_MOVE", 0, attacker.getFightMoves().size());
-            if (moveChoice == 0) {
-                printBattleStatus(playerTeam, opponentTeam);
-                InputManager.EnterToContinue();
-            } else {
-                waitForMove = false;
-            }
-        }
+    @Override
+    public void onBattleStart(Team playerTeam, Team opponentTeam) {
+        System.out.println(ConsoleColors.colorizeAndBold(LocaleManager.getMessage("BATTLE_START"), "green"));
+        sleep(delayMillis);
+    }
 
-        Move chosenMove = attacker.getFightMoves().get(moveChoice - 1);
-        System.out.println(ConsoleColors.colorize(LocaleManager.getMessage("BATTLE_USED", attacker.getName(), chosenMove.getName()), "magenta"));
-        sleep(2000); // Add a delay before showing the move effect
+    @Override
+    public void onTurnStart(int turn, Palmon playerPalmon, Palmon opponentPalmon) {
+        ConsoleOutput.render(out -> {
+            ConsoleOutput.line(out, "");
+            ConsoleOutput.line(out, ConsoleColors.colorizeAndBold("\n" + LocaleManager.getMessage("BATTLE_ROUND", turn), "cyan"));
+            ConsoleOutput.line(out, ConsoleColors.colorize(playerPalmon.getName(), "blue") + " vs. " + ConsoleColors.colorize(opponentPalmon.getName(), "red"));
+        });
+        sleep(delayMillis); // Add a delay before the attack sequence
+        firstAttackOfTurn = true;
+    }
 
-        if (chosenMove.getAccuracy() < Math.random() * 100) {
-            System.out.println(ConsoleColors.colorize(LocaleManager.getMessage("BATTLE_MISSED_ATTACK", attacker.getName()), "yellow"));
-            return;
+    @Override
+    public void onAttackStart(int side, Palmon attacker) {
+        if (!firstAttackOfTurn) {
+            sleep(delayMillis); // Add a delay before the counterattack
         }
+        firstAttackOfTurn = false;
 
-        int damage = attacker.getAttack() + chosenMove.getDamage();
-        float effectivity = DataStorageService.getEffectivityMultiplier(attacker.getPrimaryType(), defender.getPrimaryType());
-        damage = (int) (damage * effectivity) - defender.getDefense();
-
-        if (damage < 0) {
-            damage = 0;
-            System.out.println(ConsoleColors.colorize(LocaleManager.getMessage("BATTLE_ATTACK_NOT_EFFECTIVE"), "yellow"));
-            return;
+        System.out.println();
+        if (side == BattleEngine.PLAYER) {
+            System.out.println(ConsoleColors.colorize(LocaleManager.getMessage("BATTLE_YOUR_MOVE", Player.getUserName()), "green"));
+        } else {
+            System.out.println(ConsoleColors.colorize(LocaleManager.getMessage("BATTLE_YOUR_MOVE", Player.getOpponentName()), "red"));
         }
+    }
 
-        System.out.println(ConsoleColors.colorize(LocaleManager.getMessage("BATTLE_DEALT", attacker.getName(), damage, defender.getName()), "green"));
-        chosenMove.use();
-        defender.attack(damage);
+    @Override
+    public void onNoUsableMoves(int side, Palmon attacker) {
+        System.out.println(ConsoleColors.colorize(LocaleManager.getMessage("BATTLE_NO_USABLE_MOVES", attacker.getName()), "yellow"));
     }
 
-    /**
-     * Executes an attack from the bot Palmon to the player's Palmon.
-     * The bot Palmon chooses a random move to use, and the player's Palmon receives the damage.
-     * @param attacker the Palmon that attacks
-     * @param defender the Palmon that receives the attack
-     * Time Complexity: O(1)
-     */
-    private void attackByOpponent(Palmon attacker, Palmon defender) {
-        System.out.println();
-        System.out.println(ConsoleColors.colorize(LocaleManager.getMessage("BATTLE_YOUR_MOVE", Player.getOpponentName()), "red"));
-        checkForMaxUsages(attacker);
-        int moveChoice = (int) (Math.random() * attacker.getFightMoves().size());
-        Move chosenMove = attacker.getFightMoves().get(moveChoice);
-        System.out.println(ConsoleColors.colorize(LocaleManager.getMessage("BATTLE_USED", attacker.getName(), chosenMove.getName()), "magenta"));
-        sleep(2000); // Add a delay before showing the move effect
-
-        if (chosenMove.getAccuracy() < Math.random() * 100) {
-            System.out.println(ConsoleColors.colorize(LocaleManager.getMessage("BATTLE_MISSED_ATTACK", attacker.getName()), "yellow"));
-            return;
-        }
+    @Override
+    public void onMoveUsed(int side, Palmon attacker, Move move) {
+        System.out.println(ConsoleColors.colorize(LocaleManager.getMessage("BATTLE_USED", attacker.getName(), move.getName()), "magenta"));
+        sleep(delayMillis); // Add a delay before showing the move effect
+    }
 
-        int damage = attacker.getAttack() + chosenMove.getDamage() - defender.getDefense();
-        float effectivity = DataStorageService.getEffectivityMultiplier(attacker.getPrimaryType(), defender.getPrimaryType());
-        damage *= effectivity;
+    @Override
+    public void onMiss(int side, Palmon attacker, Move move) {
+        System.out.println(ConsoleColors.colorize(LocaleManager.getMessage("BATTLE_MISSED_ATTACK", attacker.getName()), "yellow"));
+    }
 
-        if (damage < 0) {
-            damage = 0;
-            System.out.println(ConsoleColors.colorize(LocaleManager.getMessage("BATTLE_ATTACK_NOT_EFFECTIVE"), "yellow"));
-            return;
-        }
+    @Override
+    public void onNotEffective(int side, Palmon attacker, Move move) {
+        System.out.println(ConsoleColors.colorize(LocaleManager.getMessage("BATTLE_ATTACK_NOT_EFFECTIVE"), "yellow"));
+    }
 
-        System.out.println(ConsoleColors.colorize(LocaleManager.getMessage("BATTLE_DEALT", attacker.getName(), damage, defender.getName()), "green"));
-        chosenMove.use();
+    @Override
+    public void onDamage(int side, Palmon attacker, Palmon defender, Move move, int damage) {
+        // The engine keeps its own battle state, mirror it so the status tables show the current values
+        move.use();
         defender.attack(damage);
+        System.out.println(ConsoleColors.colorize(LocaleManager.getMessage("BATTLE_DEALT", attacker.getName(), damage, defender.getName()), "green"));
+    }
+
+    @Override
+    public void onDefeated(int side, Palmon palmon) {
+        String color = side == BattleEngine.PLAYER ? "red" : "green";
+        System.out.println(ConsoleColors.colorize(LocaleManager.getMessage("BATTLE_STATUS_DEFEATED", palmon.getName()), color));
+    }
+
+    @Override
+    public void onNextPalmon(int side, Palmon palmon) {
+        sleep(delayMillis); // Add a delay before the next Palmon comes out
+    }
+
+    @Override
+    public void onBattleEnd(BattleResult result) {
+        ConsoleOutput.render(out -> {
+            if (result.isDraw()) {
+                ConsoleOutput.line(out, "");
+                ConsoleOutput.line(out, "");
+                ConsoleOutput.line(out, ConsoleColors.colorize(LocaleManager.getMessage("BATTLE_RESULT_DRAW", result.getTurns()), "yellow"));
+            } else if (result.getWinner() == BattleEngine.OPPONENT) {
+                ConsoleOutput.line(out, ConsoleColors.colorize(LocaleManager.getMessage("BATTLE_RESULT_PLAYER_TEAM_DEFEATED", Player.getUserName()), "red"));
+                ConsoleOutput.line(out, "");
+                ConsoleOutput.line(out, "");
+                ConsoleOutput.line(out, ConsoleColors.colorize(LocaleManager.getMessage("BATTLE_RESULT_OPPONENT_WINS", Player.getOpponentName()), "red"));
+                ConsoleOutput.line(out, "I've failed over and over and over again in my life. And that is why I succeed. - Michael Jordan");
+            } else {
+                ConsoleOutput.line(out, ConsoleColors.colorize(LocaleManager.getMessage("BATTLE_RESULT_OPPONENT_TEAM_DEFEATED", Player.getOpponentName()), "green"));
+                ConsoleOutput.line(out, "");
+                ConsoleOutput.line(out, "");
+                ConsoleOutput.line(out, ConsoleColors.colorize(LocaleManager.getMessage("BATTLE_RESULT_PLAYER_WINS", Player.getUserName()), "green"));
+                TableCreator.renderTeam(out, playerTeam);
+            }
+        });
     }
 
     /**
-     * Checks if a team is defeated.
-     * A team is defeated if all of its Palmons are defeated.
-     * @param team the team to check
-     * @return true if the team is defeated, false otherwise
-     * Time Complexity: O(n)
+     * Asks the player which move their active Palmon should use.
+     * Choosing 0 shows the battle status and asks again, as does choosing a move without usages left.
+     *
+     * @param engine the engine running the battle
+     * @param side   the player's side
+     * @return the index of the chosen move in the Palmon's fight moves
+     * Time Complexity: O(1) per prompt
      */
-    private boolean isTeamDefeated(Team team) {
-        return team.getPalmons().stream().allMatch(Palmon::isDefeated);
+    private int choosePlayerMove(BattleEngine engine, int side) {
+        Palmon attacker = engine.getActivePalmon(side);
+        while (true) {
+            TableCreator.printPalmonFightMoves(attacker);
+            int moveChoice = InputManager.Integer("BATTLE_CHOOSE_MOVE", 0, attacker.getFightMoves().size());
+            if (moveChoice == 0) {
+                printBattleStatus(playerTeam, opponentTeam);
+                InputManager.EnterToContinue();
+            } else if (engine.getRemainingUsages(side, moveChoice - 1) <= 0) {
+                System.out.println(ConsoleColors.colorizeAndBold(LocaleManager.getMessage("BATTLE_MOVE_NOT_USABLE"), "red"));
+            } else {
+                return moveChoice - 1;
+            }
+        }
     }
 
     /**
-     * Removes the moves that have reached their maximum number of usages from the Palmon's fight moves.
-     * @param palmon the Palmon to check
-     * Time Complexity: O(n)
+     * Wraps a move selector so the time of every decision is recorded. For the player this is the time
+     * the player takes to enter a move.
+     *
+     * @param selector the selector to wrap
+     * @param latency  the histogram to record the decision times into, in nanoseconds
+     * @return the wrapped selector
+     * Time Complexity: O(1)
      */
-    private void checkForMaxUsages(Palmon palmon) {
-        palmon.getFightMoves().removeIf(move -> !move.isUsable());
+    private static MoveSelector timed(MoveSelector selector, Histogram latency) {
+        return (engine, side) -> {
+            long start = System.nanoTime();
+            int moveIndex = selector.selectMove(engine, side);
+            latency.record(System.nanoTime() - start);
+            return moveIndex;
+        };
     }
 
     /**
@@ -230,12 +235,14 @@ public class Battle {
      * Time Complexity: O(n)
      */
     public static void printBattleStatus(Team playerTeam, Team opponentTeam) {
-        System.out.println();
-        System.out.println(ConsoleColors.colorizeAndBold(LocaleManager.getMessage("BATTLE_STATUS"), "cyan"));
-        System.out.println(ConsoleColors.colorize(LocaleManager.getMessage("BATTLE_TEAM_STATUS", Player.getUserName()), "green"));
-        TableCreator.printTeam(playerTeam);
-        System.out.println(ConsoleColors.colorize(LocaleManager.getMessage("BATTLE_TEAM_STATUS", Player.getOpponentName()), "red"));
-        TableCreator.printTeam(opponentTeam);
+        ConsoleOutput.render(out -> {
+            ConsoleOutput.line(out, "");
+            ConsoleOutput.line(out, ConsoleColors.colorizeAndBold(LocaleManager.getMessage("BATTLE_STATUS"), "cyan"));
+            ConsoleOutput.line(out, ConsoleColors.colorize(LocaleManager.getMessage("BATTLE_TEAM_STATUS", Player.getUserName()), "green"));
+            TableCreator.renderTeam(out, playerTeam);
+            ConsoleOutput.line(out, ConsoleColors.colorize(LocaleManager.getMessage("BATTLE_TEAM_STATUS", Player.getOpponentName()), "red"));
+            TableCreator.renderTeam(out, opponentTeam);
+        });
     }
 
     /**
@@ -244,6 +251,9 @@ public class Battle {
      * Time Complexity: O(1)
      */
     private void sleep(int milliseconds) {
+        if (milliseconds <= 0) {
+            return;
+        }
         try {
             Thread.sleep(milliseconds);
         } catch (InterruptedException e) {
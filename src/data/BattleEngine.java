@@ -0,0 +1,408 @@
+package data;
+
+import service.DataStorageService;
+import service.MetricsService;
+import utils.Metrics.Counter;
+import utils.Metrics.Histogram;
+
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * The BattleEngine class resolves a battle between two teams.
+ * It contains the game rules only: it does no console I/O and never sleeps, so a battle runs as fast as
+ * the rules can be evaluated. Move choices are delegated to one MoveSelector per side and every step of
+ * the battle is reported to a BattleListener, which presenters such as Battle use to render it.
+ */
+public class BattleEngine {
+    public static final int PLAYER = 0;
+    public static final int OPPONENT = 1;
+    public static final int MAX_TURNS = 1000;
+    public static final int MAX_STALLED_TURNS = 50;
+
+    private static final Counter battles = MetricsService.counter("battle.count");
+    private static final Histogram battleTurns = MetricsService.histogram("battle.turns");
+
+    private final MoveSelector[] selectors = new MoveSelector[2];
+    private final RandomGenerator random;
+    private BattleListener listener = BattleListener.SILENT;
+    private BattleLog log;
+
+    private final SideState[] sides = {new SideState(), new SideState()};
+    private TypeChart typeChart;
+    private boolean progressed;
+
+    /**
+     * Creates a new BattleEngine.
+     *
+     * @param playerSelector   chooses the moves of the player's team
+     * @param opponentSelector chooses the moves of the opponent's team
+     * @param random           the source of randomness for hit chances and random move choices
+     */
+    public BattleEngine(MoveSelector playerSelector, MoveSelector opponentSelector, RandomGenerator random) {
+        this.selectors[PLAYER] = playerSelector;
+        this.selectors[OPPONENT] = opponentSelector;
+        this.random = random;
+    }
+
+    public void setListener(BattleListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Sets the log that every following battle is recorded into. The log is cleared at the start of each battle.
+     *
+     * @param log the log to record into, or null to record nothing
+     */
+    public void setLog(BattleLog log) {
+        this.log = log;
+    }
+
+    /**
+     * Runs a battle until one of the teams is defeated or MAX_TURNS is reached.
+     * The active Palmons attack each other in order of their speed, the faster one first.
+     * A turn makes progress if a move is used up or a Palmon loses health; after MAX_STALLED_TURNS turns
+     * in a row without progress neither side can win any more, so the battle ends in a draw.
+     *
+     * @param playerTeam   the player's team
+     * @param opponentTeam the opponent's team
+     * @return the result of the battle
+     * Time Complexity: O(t) where t is the number of turns
+     */
+    public BattleResult run(Team playerTeam, Team opponentTeam) {
+        sides[PLAYER].load(playerTeam);
+        sides[OPPONENT].load(opponentTeam);
+        typeChart = DataStorageService.getTypeChart();
+
+        if (log != null) {
+            log.clear();
+            log.writeStart(playerTeam, opponentTeam);
+        }
+        listener.onBattleStart(playerTeam, opponentTeam);
+
+        int turn = 0;
+        int stalledTurns = 0;
+        while (!sides[PLAYER].isDefeated() && !sides[OPPONENT].isDefeated() && turn < MAX_TURNS
+                && stalledTurns < MAX_STALLED_TURNS) {
+            turn++;
+            progressed = false;
+            if (log != null) {
+                log.writeTurn(turn);
+            }
+            listener.onTurnStart(turn, getActivePalmon(PLAYER), getActivePalmon(OPPONENT));
+
+            int first = getActiveSpecies(PLAYER).getSpeed() >= getActiveSpecies(OPPONENT).getSpeed() ? PLAYER : OPPONENT;
+            int second = opponentOf(first);
+            attack(first);
+            if (getHp(second) > 0) {
+                attack(second);
+            }
+
+            replaceIfDefeated(PLAYER);
+            replaceIfDefeated(OPPONENT);
+            stalledTurns = progressed ? 0 : stalledTurns + 1;
+        }
+
+        int winner = sides[OPPONENT].isDefeated() ? PLAYER : sides[PLAYER].isDefeated() ? OPPONENT : BattleResult.DRAW;
+        if (log != null) {
+            log.writeEnd(winner, turn);
+        }
+        BattleResult result = new BattleResult(winner, turn);
+        battles.increment();
+        battleTurns.record(turn);
+        listener.onBattleEnd(result);
+        return result;
+    }
+
+    /**
+     * Executes an attack of the active Palmon of the given side on the active Palmon of the other side.
+     * The attack misses if the move's accuracy is lower than a random number between 0 and 100 and is
+     * not effective if the resulting damage is negative. The effectivity depends on the move's type against
+     * both types of the defender. Moves are only used up by attacks that deal damage.
+     *
+     * @param side the attacking side
+     * Time Complexity: O(m) where m is the number of fight moves of the attacker
+     */
+    private void attack(int side) {
+        SideState attacking = sides[side];
+        SideState defending = sides[opponentOf(side)];
+        Palmon attacker = attacking.activePalmon();
+        listener.onAttackStart(side, attacker);
+
+        if (getUsableMoveCount(side) == 0) {
+            if (log != null) {
+                log.writeNoMoves(side);
+            }
+            listener.onNoUsableMoves(side, attacker);
+            return;
+        }
+
+        int moveIndex = selectors[side].selectMove(this, side);
+        if (getRemainingUsages(side, moveIndex) <= 0) {
+            throw new IllegalStateException("Move " + moveIndex + " of " + attacker.getName() + " is not usable");
+        }
+        int slot = attacking.moveSlot(moveIndex);
+        MoveSpec moveSpec = attacking.moves[slot];
+        Move move = attacker.getFightMoves().get(moveIndex);
+        listener.onMoveUsed(side, attacker, move);
+
+        if (moveSpec.getAccuracy() < random.nextDouble() * 100) {
+            if (log != null) {
+                log.writeMiss(side, moveSpec.getId());
+            }
+            listener.onMiss(side, attacker, move);
+            return;
+        }
+
+        float effectivity = effectivity(moveSpec, defending.activeSpecies());
+        int damage = damage(attacking.activeSpecies(), moveSpec, defending.activeSpecies(), effectivity);
+
+        if (damage < 0) {
+            if (log != null) {
+                log.writeNotEffective(side, moveSpec.getId(), effectivity);
+            }
+            listener.onNotEffective(side, attacker, move);
+            return;
+        }
+
+        attacking.remainingUsages[slot]--;
+        progressed = true;
+        defending.hp[defending.active] = Math.max(0, defending.hp[defending.active] - damage);
+        if (log != null) {
+            log.writeHit(side, moveSpec.getId(), damage, effectivity);
+        }
+        listener.onDamage(side, attacker, defending.activePalmon(), move, damage);
+    }
+
+    private float effectivity(MoveSpec move, PalmonSpecies defender) {
+        return typeChart.multiplier(move.getTypeOrdinal(), defender.getPrimaryTypeOrdinal(), defender.getSecondaryTypeOrdinal());
+    }
+
+    private static int damage(PalmonSpecies attacker, MoveSpec move, PalmonSpecies defender, float effectivity) {
+        return (int) ((attacker.getAttack() + move.getDamage()) * effectivity) - defender.getDefense();
+    }
+
+    /**
+     * Sends in the next Palmon of the given side if its active Palmon is defeated.
+     *
+     * @param side the side to check
+     * Time Complexity: O(n) where n is the number of Palmons in the team
+     */
+    private void replaceIfDefeated(int side) {
+        SideState state = sides[side];
+        if (state.hp[state.active] <= 0) {
+            if (log != null) {
+                log.writeDefeated(side);
+            }
+            listener.onDefeated(side, state.activePalmon());
+            if (state.advance()) {
+                if (log != null) {
+                    log.writeNext(side, state.active);
+                }
+                listener.onNextPalmon(side, state.activePalmon());
+            }
+        }
+    }
+
+    /**
+     * Gets the Palmon that currently fights for the given side.
+     * The Palmon is not updated by the engine, its current health is returned by getHp.
+     *
+     * @param side BattleEngine.PLAYER or BattleEngine.OPPONENT
+     * @return the active Palmon
+     * Time Complexity: O(1)
+     */
+    public Palmon getActivePalmon(int side) {
+        return sides[side].activePalmon();
+    }
+
+    public PalmonSpecies getActiveSpecies(int side) {
+        return sides[side].activeSpecies();
+    }
+
+    /**
+     * Gets the current health of the active Palmon of the given side.
+     *
+     * @param side BattleEngine.PLAYER or BattleEngine.OPPONENT
+     * @return the current health
+     * Time Complexity: O(1)
+     */
+    public int getHp(int side) {
+        SideState state = sides[side];
+        return state.hp[state.active];
+    }
+
+    /**
+     * Gets the number of fight moves of the active Palmon of the given side, including used up ones.
+     *
+     * @param side BattleEngine.PLAYER or BattleEngine.OPPONENT
+     * @return the number of fight moves
+     * Time Complexity: O(1)
+     */
+    public int getMoveCount(int side) {
+        SideState state = sides[side];
+        return state.moveCounts[state.active];
+    }
+
+    public MoveSpec getMove(int side, int moveIndex) {
+        return sides[side].moves[sides[side].moveSlot(moveIndex)];
+    }
+
+    public int getRemainingUsages(int side, int moveIndex) {
+        return sides[side].remainingUsages[sides[side].moveSlot(moveIndex)];
+    }
+
+    /**
+     * Computes the damage a fight move of the active Palmon of the given side deals to the active Palmon of the
+     * other side if it hits, using the same formula as the attack. A negative damage means the move is not effective.
+     *
+     * @param side      BattleEngine.PLAYER or BattleEngine.OPPONENT
+     * @param moveIndex the index of the move in the fight moves
+     * @return the damage of a hit
+     * Time Complexity: O(1)
+     */
+    public int getDamage(int side, int moveIndex) {
+        MoveSpec move = getMove(side, moveIndex);
+        PalmonSpecies defender = getActiveSpecies(opponentOf(side));
+        return damage(getActiveSpecies(side), move, defender, effectivity(move, defender));
+    }
+
+    /**
+     * Gets the probability that a fight move of the active Palmon of the given side hits.
+     *
+     * @param side      BattleEngine.PLAYER or BattleEngine.OPPONENT
+     * @param moveIndex the index of the move in the fight moves
+     * @return the hit chance between 0 and 1
+     * Time Complexity: O(1)
+     */
+    public float getHitChance(int side, int moveIndex) {
+        return Math.min(1f, Math.max(0f, getMove(side, moveIndex).getAccuracy() / 100f));
+    }
+
+    /**
+     * Counts the fight moves of the active Palmon of the given side that have usages left.
+     *
+     * @param side BattleEngine.PLAYER or BattleEngine.OPPONENT
+     * @return the number of usable moves
+     * Time Complexity: O(m) where m is the number of fight moves
+     */
+    public int getUsableMoveCount(int side) {
+        int usable = 0;
+        for (int i = 0; i < getMoveCount(side); i++) {
+            if (getRemainingUsages(side, i) > 0) {
+                usable++;
+            }
+        }
+        return usable;
+    }
+
+    /**
+     * Finds the n-th fight move of the active Palmon of the given side that has usages left.
+     *
+     * @param side BattleEngine.PLAYER or BattleEngine.OPPONENT
+     * @param n    the position among the usable moves, starting at 0
+     * @return the index of the move in the fight moves
+     * Time Complexity: O(m) where m is the number of fight moves
+     */
+    public int getUsableMove(int side, int n) {
+        for (int i = 0; i < getMoveCount(side); i++) {
+            if (getRemainingUsages(side, i) > 0 && n-- == 0) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Palmon has less than " + (n + 1) + " usable moves");
+    }
+
+    public Team getTeam(int side) {
+        return sides[side].team;
+    }
+
+    public RandomGenerator getRandom() {
+        return random;
+    }
+
+    public static int opponentOf(int side) {
+        return 1 - side;
+    }
+
+    /**
+     * The state of one side of a battle. The shared species and move data is only referenced, the
+     * health and remaining usages are copied from the team into flat arrays that are reused across
+     * battles, so neither the team nor the catalogue is changed by the engine.
+     */
+    private static final class SideState {
+        Team team;
+        int size;
+        int active;
+        int[] hp = new int[0];
+        int[] moveCounts = new int[0];
+        MoveSpec[] moves = new MoveSpec[0];
+        int[] remainingUsages = new int[0];
+
+        /**
+         * Copies the state of the given team and makes its first Palmon that is not defeated active.
+         *
+         * @param team the team to load
+         * Time Complexity: O(n) where n is the number of Palmons in the team
+         */
+        void load(Team team) {
+            List<Palmon> palmons = team.getPalmons();
+            this.team = team;
+            this.size = palmons.size();
+            if (hp.length < size) {
+                hp = new int[size];
+                moveCounts = new int[size];
+                moves = new MoveSpec[size * Palmon.maxMoves];
+                remainingUsages = new int[size * Palmon.maxMoves];
+            }
+            for (int i = 0; i < size; i++) {
+                Palmon palmon = palmons.get(i);
+                List<Move> fightMoves = palmon.getFightMoves();
+                int moveCount = Math.min(fightMoves.size(), Palmon.maxMoves);
+                hp[i] = Math.max(0, palmon.getHp());
+                moveCounts[i] = moveCount;
+                for (int j = 0; j < moveCount; j++) {
+                    Move move = fightMoves.get(j);
+                    moves[i * Palmon.maxMoves + j] = move.getSpec();
+                    remainingUsages[i * Palmon.maxMoves + j] = move.getRemainingUsages();
+                }
+            }
+            active = -1;
+            advance();
+        }
+
+        /**
+         * Moves the active index to the next Palmon that is not defeated.
+         *
+         * @return true if such a Palmon exists, false if the team is defeated
+         * Time Complexity: O(n) where n is the number of Palmons in the team
+         */
+        boolean advance() {
+            int index = active + 1;
+            while (index < size && hp[index] <= 0) {
+                index++;
+            }
+            active = index;
+            return index < size;
+        }
+
+        boolean isDefeated() {
+            return active >= size;
+        }
+
+        int moveSlot(int moveIndex) {
+            if (moveIndex < 0 || moveIndex >= moveCounts[active]) {
+                throw new IndexOutOfBoundsException("Move index " + moveIndex + " out of bounds");
+            }
+            return active * Palmon.maxMoves + moveIndex;
+        }
+
+        Palmon activePalmon() {
+            return team.getPalmons().get(active);
+        }
+
+        PalmonSpecies activeSpecies() {
+            return activePalmon().getSpecies();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package data;
+
+/**
+ * Receives the events of a battle resolved by the BattleEngine.
+ * All methods default to doing nothing, so presenters only override the events they render.
+ */
+public interface BattleListener {
+
+    /**
+     * A listener that ignores every event, used for headless battles.
+     */
+    BattleListener SILENT = new BattleListener() {
+    };
+
+    default void onBattleStart(Team playerTeam, Team opponentTeam) {
+    }
+
+    default void onTurnStart(int turn, Palmon playerPalmon, Palmon opponentPalmon) {
+    }
+
+    default void onAttackStart(int side, Palmon attacker) {
+    }
+
+    default void onNoUsableMoves(int side, Palmon attacker) {
+    }
+
+    default void onMoveUsed(int side, Palmon attacker, Move move) {
+    }
+
+    default void onMiss(int side, Palmon attacker, Move move) {
+    }
+
+    default void onNotEffective(int side, Palmon attacker, Move move) {
+    }
+
+    default void onDamage(int side, Palmon attacker, Palmon defender, Move move, int damage) {
+    }
+
+    default void onDefeated(int side, Palmon palmon) {
+    }
+
+    default void onNextPalmon(int side, Palmon palmon) {
+    }
+
+    default void onBattleEnd(BattleResult result) {
+    }
+}
@@ -0,0 +1,165 @@
+package data;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The BattleLog class records the events of a battle in a compact binary format.
+ * Every event is a one byte event type followed by its fields:
+ * <ul>
+ *     <li>START: for both teams the team size as a short, then for every Palmon the species ID as an int,
+ *     the level as a short, the health as an int, the number of fight moves as a byte and for every fight
+ *     move the move ID as an int and the used usages as a short</li>
+ *     <li>TURN: the turn as an int</li>
+ *     <li>NO_MOVES: the attacking side as a byte</li>
+ *     <li>MISS: the attacking side as a byte and the move ID as an int</li>
+ *     <li>NOT_EFFECTIVE: the attacking side as a byte, the move ID as an int and the effectivity as a float</li>
+ *     <li>HIT: the attacking side as a byte, the move ID as an int, the damage as an int and the effectivity
+ *     as a float</li>
+ *     <li>DEFEATED: the side as a byte</li>
+ *     <li>NEXT: the side as a byte and the team slot of the Palmon that is sent in as a short</li>
+ *     <li>END: the winner as a byte and the number of turns as an int</li>
+ * </ul>
+ * The acting Palmon of an event is always the active Palmon of its side, which follows from the START and
+ * NEXT events. A log is cleared and refilled by every battle it is given to, so a single log can be reused
+ * for many battles without allocating. The BattleReplayer turns a log back into BattleListener events.
+ */
+public class BattleLog {
+    static final byte START = 1;
+    static final byte TURN = 2;
+    static final byte NO_MOVES = 3;
+    static final byte MISS = 4;
+    static final byte NOT_EFFECTIVE = 5;
+    static final byte HIT = 6;
+    static final byte DEFEATED = 7;
+    static final byte NEXT = 8;
+    static final byte END = 9;
+
+    private ByteBuffer buffer;
+
+    public BattleLog() {
+        this.buffer = ByteBuffer.allocate(1024);
+    }
+
+    /**
+     * Creates a log from bytes that were taken from another log with toByteArray.
+     *
+     * @param bytes the encoded events
+     */
+    public BattleLog(byte[] bytes) {
+        this.buffer = ByteBuffer.allocate(Math.max(bytes.length, 16));
+        this.buffer.put(bytes);
+    }
+
+    /**
+     * Removes all events, keeping the allocated buffer.
+     * Time Complexity: O(1)
+     */
+    public void clear() {
+        buffer.clear();
+    }
+
+    /**
+     * Gets the size of the encoded events.
+     *
+     * @return the number of bytes
+     * Time Complexity: O(1)
+     */
+    public int size() {
+        return buffer.position();
+    }
+
+    /**
+     * Copies the encoded events, for example to store them.
+     *
+     * @return the encoded events
+     * Time Complexity: O(n) where n is the size of the log
+     */
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer.array(), buffer.position());
+    }
+
+    /**
+     * Creates a read-only view of the encoded events, positioned at the first event.
+     *
+     * @return the view
+     * Time Complexity: O(1)
+     */
+    ByteBuffer events() {
+        return ByteBuffer.wrap(buffer.array(), 0, buffer.position()).asReadOnlyBuffer();
+    }
+
+    void writeStart(Team playerTeam, Team opponentTeam) {
+        ensureCapacity(1);
+        buffer.put(START);
+        writeTeam(playerTeam);
+        writeTeam(opponentTeam);
+    }
+
+    private void writeTeam(Team team) {
+        List<Palmon> palmons = team.getPalmons();
+        ensureCapacity(2 + palmons.size() * (11 + Palmon.maxMoves * 6));
+        buffer.putShort((short) palmons.size());
+        for (Palmon palmon : palmons) {
+            List<Move> fightMoves = palmon.getFightMoves();
+            int moveCount = Math.min(fightMoves.size(), Palmon.maxMoves);
+            buffer.putInt(palmon.getId());
+            buffer.putShort((short) palmon.getLevel());
+            buffer.putInt(palmon.getHp());
+            buffer.put((byte) moveCount);
+            for (int i = 0; i < moveCount; i++) {
+                buffer.putInt(fightMoves.get(i).getId());
+                buffer.putShort((short) fightMoves.get(i).getUsages());
+            }
+        }
+    }
+
+    void writeTurn(int turn) {
+        ensureCapacity(5);
+        buffer.put(TURN).putInt(turn);
+    }
+
+    void writeNoMoves(int side) {
+        ensureCapacity(2);
+        buffer.put(NO_MOVES).put((byte) side);
+    }
+
+    void writeMiss(int side, int moveId) {
+        ensureCapacity(6);
+        buffer.put(MISS).put((byte) side).putInt(moveId);
+    }
+
+    void writeNotEffective(int side, int moveId, float effectivity) {
+        ensureCapacity(10);
+        buffer.put(NOT_EFFECTIVE).put((byte) side).putInt(moveId).putFloat(effectivity);
+    }
+
+    void writeHit(int side, int moveId, int damage, float effectivity) {
+        ensureCapacity(14);
+        buffer.put(HIT).put((byte) side).putInt(moveId).putInt(damage).putFloat(effectivity);
+    }
+
+    void writeDefeated(int side) {
+        ensureCapacity(2);
+        buffer.put(DEFEATED).put((byte) side);
+    }
+
+    void writeNext(int side, int slot) {
+        ensureCapacity(4);
+        buffer.put(NEXT).put((byte) side).putShort((short) slot);
+    }
+
+    void writeEnd(int winner, int turns) {
+        ensureCapacity(6);
+        buffer.put(END).put((byte) winner).putInt(turns);
+    }
+
+    private void ensureCapacity(int bytes) {
+        if (buffer.remaining() < bytes) {
+            ByteBuffer grown = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + bytes));
+            grown.put(buffer.array(), 0, buffer.position());
+            buffer = grown;
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package data;
+
+import service.DataStorageService;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+
+/**
+ * The BattleReplayer class turns a BattleLog back into the BattleListener events of the recorded battle.
+ * Replaying does not use any randomness or move selector, so it reproduces the battle exactly, as long as the
+ * catalogue contains the species and moves of the log. Replaying into a Battle presenter prints the same
+ * narration as the original battle.
+ */
+public class BattleReplayer {
+
+    /**
+     * Restores the teams at the start of the recorded battle.
+     *
+     * @param log the log of the battle
+     * @return the player's team and the opponent's team
+     * @throws IllegalStateException if the log does not start with a START event or names unknown data
+     * Time Complexity: O(n) where n is the number of Palmons in both teams
+     */
+    public static Team[] restoreTeams(BattleLog log) {
+        ByteBuffer events = log.events();
+        if (!events.hasRemaining() || events.get() != BattleLog.START) {
+            throw new IllegalStateException("The log does not start with the teams");
+        }
+        return new Team[]{readTeam(events), readTeam(events)};
+    }
+
+    /**
+     * Replays the battle of a log into a Battle presenter without delays, which prints its narration.
+     *
+     * @param log the log of the battle
+     * @return the result of the battle
+     * Time Complexity: O(e + n) where e is the number of events and n the number of Palmons in both teams
+     */
+    public static BattleResult narrate(BattleLog log) {
+        Team[] teams = restoreTeams(log);
+        Battle battle = new Battle(teams[BattleEngine.PLAYER], teams[BattleEngine.OPPONENT]);
+        battle.setDelay(0);
+        return replay(log, teams[BattleEngine.PLAYER], teams[BattleEngine.OPPONENT], battle);
+    }
+
+    /**
+     * Replays the battle of a log. The teams are passed to the listener's events, they should be restored with
+     * restoreTeams, so the events refer to the same Palmons and moves as in the original battle.
+     *
+     * @param log          the log of the battle
+     * @param playerTeam   the player's team at the start of the battle
+     * @param opponentTeam the opponent's team at the start of the battle
+     * @param listener     the listener to send the events to
+     * @return the result of the battle
+     * @throws IllegalStateException if the log is malformed
+     * Time Complexity: O(e + n) where e is the number of events and n the number of Palmons in both teams
+     */
+    public static BattleResult replay(BattleLog log, Team playerTeam, Team opponentTeam, BattleListener listener) {
+        Team[] teams = {playerTeam, opponentTeam};
+        int[] active = {firstActive(playerTeam), firstActive(opponentTeam)};
+        ByteBuffer events = log.events();
+        BattleResult result = null;
+
+        while (events.hasRemaining()) {
+            byte type = events.get();
+            switch (type) {
+                case BattleLog.START -> {
+                    skipTeam(events);
+                    skipTeam(events);
+                    listener.onBattleStart(playerTeam, opponentTeam);
+                }
+                case BattleLog.TURN -> listener.onTurnStart(events.getInt(),
+                        activePalmon(teams, active, BattleEngine.PLAYER), activePalmon(teams, active, BattleEngine.OPPONENT));
+                case BattleLog.NO_MOVES -> {
+                    int side = events.get();
+                    Palmon attacker = activePalmon(teams, active, side);
+                    listener.onAttackStart(side, attacker);
+                    listener.onNoUsableMoves(side, attacker);
+                }
+                case BattleLog.MISS, BattleLog.NOT_EFFECTIVE, BattleLog.HIT -> {
+                    int side = events.get();
+                    Palmon attacker = activePalmon(teams, active, side);
+                    Move move = findMove(attacker, events.getInt());
+                    listener.onAttackStart(side, attacker);
+                    listener.onMoveUsed(side, attacker, move);
+                    if (type == BattleLog.MISS) {
+                        listener.onMiss(side, attacker, move);
+                    } else if (type == BattleLog.NOT_EFFECTIVE) {
+                        events.getFloat();
+                        listener.onNotEffective(side, attacker, move);
+                    } else {
+                        int damage = events.getInt();
+                        events.getFloat();
+                        Palmon defender = activePalmon(teams, active, BattleEngine.opponentOf(side));
+                        listener.onDamage(side, attacker, defender, move, damage);
+                    }
+                }
+                case BattleLog.DEFEATED -> {
+                    int side = events.get();
+                    listener.onDefeated(side, activePalmon(teams, active, side));
+                }
+                case BattleLog.NEXT -> {
+                    int side = events.get();
+                    active[side] = events.getShort();
+                    listener.onNextPalmon(side, activePalmon(teams, active, side));
+                }
+                case BattleLog.END -> {
+                    int winner = events.get();
+                    result = new BattleResult(winner, events.getInt());
+                    listener.onBattleEnd(result);
+                }
+                default -> throw new IllegalStateException("Unknown event type " + type);
+            }
+        }
+        if (result == null) {
+            throw new IllegalStateException("The log does not end with a result");
+        }
+        return result;
+    }
+
+    private static Team readTeam(ByteBuffer events) {
+        Team team = new Team();
+        int size = events.getShort();
+        for (int i = 0; i < size; i++) {
+            int speciesId = events.getInt();
+            PalmonSpecies species = DataStorageService.getPalmonOrNull(speciesId);
+            if (species == null) {
+                throw new IllegalStateException("Unknown Palmon " + speciesId);
+            }
+            Palmon palmon = new Palmon(species);
+            palmon.setLevel(events.getShort());
+            palmon.setHp(events.getInt());
+            int moveCount = events.get();
+            ArrayList<Move> fightMoves = new ArrayList<>(moveCount);
+            for (int j = 0; j < moveCount; j++) {
+                int moveId = events.getInt();
+                MoveSpec spec = DataStorageService.getMoveOrNull(moveId);
+                if (spec == null) {
+                    throw new IllegalStateException("Unknown move " + moveId);
+                }
+                fightMoves.add(new Move(spec, events.getShort()));
+            }
+            palmon.setFightMoves(fightMoves);
+            team.addPalmon(palmon);
+        }
+        return team;
+    }
+
+    private static void skipTeam(ByteBuffer events) {
+        int size = events.getShort();
+        for (int i = 0; i < size; i++) {
+            events.position(events.position() + Integer.BYTES + Short.BYTES + Integer.BYTES);
+            int moveCount = events.get();
+            events.position(events.position() + moveCount * (Integer.BYTES + Short.BYTES));
+        }
+    }
+
+    /**
+     * Finds the first Palmon of a team that is not defeated, the same way the BattleEngine does.
+     */
+    private static int firstActive(Team team) {
+        int index = 0;
+        while (index < team.getPalmons().size() && team.getPalmons().get(index).getHp() <= 0) {
+            index++;
+        }
+        return index;
+    }
+
+    private static Palmon activePalmon(Team[] teams, int[] active, int side) {
+        return teams[side].getPalmons().get(active[side]);
+    }
+
+    private static Move findMove(Palmon palmon, int moveId) {
+        for (Move move : palmon.getFightMoves()) {
+            if (move.getId() == moveId) {
+                return move;
+            }
+        }
+        throw new IllegalStateException(palmon.getName() + " does not know move " + moveId);
+    }
+}
@@ -0,0 +1,49 @@
+package data;
+
+/**
+ * The BattleResult class holds the outcome of a battle resolved by the BattleEngine.
+ * The course of the battle is recorded in a BattleLog if the engine was given one.
+ */
+public class BattleResult {
+    public static final int DRAW = -1;
+
+    private final int winner;
+    private final int turns;
+
+    public BattleResult(int winner, int turns) {
+        this.winner = winner;
+        this.turns = turns;
+    }
+
+    /**
+     * Gets the winning side.
+     *
+     * @return BattleEngine.PLAYER, BattleEngine.OPPONENT or DRAW if the turn limit was reached
+     * Time Complexity: O(1)
+     */
+    public int getWinner() {
+        return winner;
+    }
+
+    /**
+     * Gets the number of turns the battle lasted. A turn is one exchange of attacks between the active Palmons.
+     *
+     * @return the number of turns
+     * Time Complexity: O(1)
+     */
+    public int getTurns() {
+        return turns;
+    }
+
+    public boolean isDraw() {
+        return winner == DRAW;
+    }
+
+    @Override
+    public String toString() {
+        return "BattleResult{" +
+                "winner=" + winner +
+                ", turns=" + turns +
+                '}';
+    }
+}
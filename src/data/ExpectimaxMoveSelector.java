@@ -0,0 +1,201 @@
+package data;
+
+import java.util.Arrays;
+
+/**
+ * The ExpectimaxMoveSelector looks a fixed number of attacks ahead in the fight between the two active Palmons.
+ * Every attack of the selecting side is a max node over its usable moves, every attack of the other side is a
+ * min node, and every move is followed by a chance node over the hit and the miss, weighted by the hit chance.
+ * The speed order of the two Palmons stays the same, so the attacks simply alternate. The search stops when one
+ * of the Palmons is defeated or the depth is reached, where the state is scored by the remaining health of both
+ * Palmons relative to the start of the search.
+ * <p>
+ * States that are reached by different attack orders are looked up in a transposition table. The search works
+ * on flat arrays that are allocated once per thread, so choosing a move does not allocate, and the selector can
+ * be shared between the threads of a bulk simulation.
+ */
+public class ExpectimaxMoveSelector implements MoveSelector {
+    public static final int DEFAULT_DEPTH = 4;
+
+    private final int depth;
+    private final ThreadLocal<Search> searches;
+
+    public ExpectimaxMoveSelector() {
+        this(DEFAULT_DEPTH);
+    }
+
+    /**
+     * Creates a selector that searches the given number of attacks ahead.
+     *
+     * @param depth the number of attacks of both sides to search, including the chosen one
+     * @throws IllegalArgumentException if the depth is smaller than 1
+     */
+    public ExpectimaxMoveSelector(int depth) {
+        if (depth < 1) {
+            throw new IllegalArgumentException("The search depth must be at least 1");
+        }
+        this.depth = depth;
+        this.searches = ThreadLocal.withInitial(Search::new);
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Time Complexity: O((2m)^d) where m is the number of fight moves and d the depth, usually much less
+     * because of the transposition table
+     */
+    @Override
+    public int selectMove(BattleEngine engine, int side) {
+        return searches.get().run(engine, side, depth);
+    }
+
+    /**
+     * The state of a search of one thread. The health and remaining usages are changed while descending and
+     * restored while returning, the damage and hit chances of all moves are fixed within a search.
+     */
+    private static final class Search {
+        private static final int TABLE_SIZE = 1 << 14;
+        private static final float WIN = 1;
+
+        private final int[] hp = new int[2];
+        private final float[] startHp = new float[2];
+        private final int[] moveCounts = new int[2];
+        private final int[] damage = new int[2 * Palmon.maxMoves];
+        private final float[] hitChance = new float[2 * Palmon.maxMoves];
+        private final int[] usages = new int[2 * Palmon.maxMoves];
+
+        private final long[] keys = new long[TABLE_SIZE];
+        private final float[] values = new float[TABLE_SIZE];
+        private final int[] stamps = new int[TABLE_SIZE];
+        private int stamp;
+        private int root;
+
+        /**
+         * Searches the best move of the given side.
+         *
+         * @return the index of the move in the fight moves
+         * Time Complexity: O((2m)^d) where m is the number of fight moves and d the depth
+         */
+        int run(BattleEngine engine, int side, int depth) {
+            // Entries of earlier searches belong to other Palmons, a new stamp invalidates all of them at once
+            if (++stamp == 0) {
+                Arrays.fill(stamps, 0);
+                stamp = 1;
+            }
+            root = side;
+            for (int s = 0; s < 2; s++) {
+                hp[s] = engine.getHp(s);
+                startHp[s] = Math.max(1, hp[s]);
+                moveCounts[s] = engine.getMoveCount(s);
+                for (int i = 0; i < moveCounts[s]; i++) {
+                    int k = s * Palmon.maxMoves + i;
+                    damage[k] = engine.getDamage(s, i);
+                    hitChance[k] = engine.getHitChance(s, i);
+                    usages[k] = engine.getRemainingUsages(s, i);
+                }
+            }
+
+            // Moves of equal value, for example two moves that both defeat the defender, are decided by expected damage
+            int best = -1;
+            float bestValue = Float.NEGATIVE_INFINITY;
+            float bestDamage = -1;
+            for (int i = 0; i < moveCounts[side]; i++) {
+                int k = side * Palmon.maxMoves + i;
+                if (usages[k] > 0) {
+                    float value = outcome(side, i, depth);
+                    float expectedDamage = Math.max(0, damage[k]) * hitChance[k];
+                    if (value > bestValue || (value == bestValue && expectedDamage > bestDamage)) {
+                        best = i;
+                        bestValue = value;
+                        bestDamage = expectedDamage;
+                    }
+                }
+            }
+            return best;
+        }
+
+        /**
+         * Computes the value of the state in which the given side attacks next, seen from the root side.
+         *
+         * @param attacker the side that attacks next
+         * @param plies    the number of attacks left to search
+         * @return the value, higher is better for the root side
+         */
+        private float value(int attacker, int plies) {
+            int other = 1 - root;
+            if (hp[root] == 0) {
+                return -WIN - hp[other] / startHp[other];
+            }
+            if (hp[other] == 0) {
+                return WIN + hp[root] / startHp[root];
+            }
+            if (plies == 0) {
+                return hp[root] / startHp[root] - hp[other] / startHp[other];
+            }
+
+            long key = key(attacker, plies);
+            int index = (int) key & (TABLE_SIZE - 1);
+            if (stamps[index] == stamp && keys[index] == key) {
+                return values[index];
+            }
+
+            boolean maximize = attacker == root;
+            float best = maximize ? Float.NEGATIVE_INFINITY : Float.POSITIVE_INFINITY;
+            boolean usable = false;
+            for (int i = 0; i < moveCounts[attacker]; i++) {
+                if (usages[attacker * Palmon.maxMoves + i] > 0) {
+                    float value = outcome(attacker, i, plies);
+                    best = maximize ? Math.max(best, value) : Math.min(best, value);
+                    usable = true;
+                }
+            }
+            if (!usable) {
+                best = value(1 - attacker, plies - 1);
+            }
+
+            stamps[index] = stamp;
+            keys[index] = key;
+            values[index] = best;
+            return best;
+        }
+
+        /**
+         * Computes the expected value of an attack with the given move over its hit and its miss.
+         * Like in the BattleEngine, only hits that are effective use up the move.
+         */
+        private float outcome(int attacker, int moveIndex, int plies) {
+            int k = attacker * Palmon.maxMoves + moveIndex;
+            int defender = 1 - attacker;
+            float chance = hitChance[k];
+            if (damage[k] < 0 || chance <= 0) {
+                return value(defender, plies - 1);
+            }
+
+            int defenderHp = hp[defender];
+            hp[defender] = Math.max(0, defenderHp - damage[k]);
+            usages[k]--;
+            float hit = value(defender, plies - 1);
+            hp[defender] = defenderHp;
+            usages[k]++;
+            if (chance >= 1) {
+                return hit;
+            }
+            return chance * hit + (1 - chance) * value(defender, plies - 1);
+        }
+
+        /**
+         * Hashes the parts of the state that change during a search.
+         */
+        private long key(int attacker, int plies) {
+            long h = ((long) hp[0] << 32 | hp[1] & 0xFFFFFFFFL) * 0x9E3779B97F4A7C15L;
+            for (int k = 0; k < usages.length; k++) {
+                h = (h ^ usages[k]) * 0xBF58476D1CE4E5B9L;
+            }
+            h ^= (long) plies << 1 | attacker;
+            h = (h ^ (h >>> 31)) * 0x94D049BB133111EBL;
+            return h ^ (h >>> 29);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package data;
+
+/**
+ * The GreedyMoveSelector picks the usable move with the highest expected damage against the active Palmon of
+ * the other side, which is the damage of a hit times the hit chance. Moves that are not effective are expected
+ * to deal no damage. On equal expected damage the move that comes first in the fight moves is picked.
+ * The selector has no state and can be shared between threads.
+ */
+public class GreedyMoveSelector implements MoveSelector {
+
+    /**
+     * Time Complexity: O(m) where m is the number of fight moves of the attacker
+     */
+    @Override
+    public int selectMove(BattleEngine engine, int side) {
+        int best = -1;
+        float bestDamage = -1;
+        for (int i = 0; i < engine.getMoveCount(side); i++) {
+            if (engine.getRemainingUsages(side, i) <= 0) {
+                continue;
+            }
+            float expectedDamage = Math.max(0, engine.getDamage(side, i)) * engine.getHitChance(side, i);
+            if (expectedDamage > bestDamage) {
+                best = i;
+                bestDamage = expectedDamage;
+            }
+        }
+        return best;
+    }
+}
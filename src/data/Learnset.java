@@ -0,0 +1,103 @@
+package data;
+
+/**
+ * The Learnset class is a view of the moves a single species can learn, as a row of a LearnsetIndex.
+ * The moves are sorted by the level they are learned on, so the moves learnable up to a level are
+ * always a prefix of the view. Reading the view allocates nothing.
+ */
+public final class Learnset {
+    public static final Learnset EMPTY = new Learnset(new int[0], new short[0], 0, 0);
+
+    private final int[] moveIds;
+    private final short[] levels;
+    private final int start;
+    private final int end;
+
+    Learnset(int[] moveIds, short[] levels, int start, int end) {
+        this.moveIds = moveIds;
+        this.levels = levels;
+        this.start = start;
+        this.end = end;
+    }
+
+    /**
+     * Gets the number of moves in the learnset.
+     *
+     * @return the number of moves
+     * Time Complexity: O(1)
+     */
+    public int size() {
+        return end - start;
+    }
+
+    public boolean isEmpty() {
+        return start == end;
+    }
+
+    /**
+     * Gets the ID of a move of the learnset.
+     *
+     * @param index the position of the move, between 0 and size() - 1
+     * @return the ID of the move
+     * Time Complexity: O(1)
+     */
+    public int getMoveId(int index) {
+        return moveIds[start + checkIndex(index)];
+    }
+
+    /**
+     * Gets the level a move of the learnset is learned on.
+     *
+     * @param index the position of the move, between 0 and size() - 1
+     * @return the level the move is learned on
+     * Time Complexity: O(1)
+     */
+    public int getLevel(int index) {
+        return levels[start + checkIndex(index)];
+    }
+
+    /**
+     * Counts the moves that are learned on or below the given level. These are the moves at the
+     * positions 0 to the count - 1.
+     *
+     * @param level the highest level to count
+     * @return the number of moves learned on or below the level
+     * Time Complexity: O(log m) where m is the number of moves in the learnset
+     */
+    public int countUpToLevel(int level) {
+        int low = start;
+        int high = end;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (levels[middle] <= level) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low - start;
+    }
+
+    /**
+     * Gets the level a move is learned on.
+     *
+     * @param moveId the ID of the move
+     * @return the level the move is learned on, or -1 if the species cannot learn the move
+     * Time Complexity: O(m) where m is the number of moves in the learnset
+     */
+    public int getLevelOf(int moveId) {
+        for (int i = start; i < end; i++) {
+            if (moveIds[i] == moveId) {
+                return levels[i];
+            }
+        }
+        return -1;
+    }
+
+    private int checkIndex(int index) {
+        if (index < 0 || index >= end - start) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for learnset of size " + (end - start));
+        }
+        return index;
+    }
+}
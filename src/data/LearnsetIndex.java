@@ -0,0 +1,213 @@
+package data;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The LearnsetIndex class stores the moves of every species in compressed sparse rows.
+ * The row of a species is selected by its ordinal: the moves of the species with ordinal o are stored
+ * between offsets[o] and offsets[o + 1] of the parallel moveIds and levels arrays, sorted by level and
+ * then by move ID. This keeps all learnsets in three flat arrays instead of one map per species.
+ */
+public final class LearnsetIndex {
+    public static final LearnsetIndex EMPTY = new LearnsetIndex(new int[1], new int[0], new short[0]);
+
+    private final int[] offsets;
+    private final int[] moveIds;
+    private final short[] levels;
+
+    /**
+     * Creates an index from its rows.
+     *
+     * @param offsets the start of every row, followed by the end of the last row
+     * @param moveIds the move IDs of all rows
+     * @param levels  the levels of all rows, parallel to moveIds
+     */
+    public LearnsetIndex(int[] offsets, int[] moveIds, short[] levels) {
+        if (offsets.length == 0 || offsets[0] != 0 || offsets[offsets.length - 1] != moveIds.length
+                || moveIds.length != levels.length) {
+            throw new IllegalArgumentException("Offsets do not match the learnset arrays");
+        }
+        for (int i = 1; i < offsets.length; i++) {
+            if (offsets[i] < offsets[i - 1]) {
+                throw new IllegalArgumentException("Offsets must not decrease");
+            }
+        }
+        this.offsets = offsets;
+        this.moveIds = moveIds;
+        this.levels = levels;
+    }
+
+    /**
+     * Gets the number of species, that is the number of rows, of the index.
+     *
+     * @return the number of species
+     * Time Complexity: O(1)
+     */
+    public int getSpeciesCount() {
+        return offsets.length - 1;
+    }
+
+    /**
+     * Gets the number of moves in all rows together.
+     *
+     * @return the number of entries
+     * Time Complexity: O(1)
+     */
+    public int getEntryCount() {
+        return moveIds.length;
+    }
+
+    /**
+     * Creates the view of the learnset of a species.
+     *
+     * @param speciesOrdinal the ordinal of the species
+     * @return the learnset of the species
+     * Time Complexity: O(1)
+     */
+    public Learnset learnset(int speciesOrdinal) {
+        return new Learnset(moveIds, levels, offsets[speciesOrdinal], offsets[speciesOrdinal + 1]);
+    }
+
+    public int getOffset(int index) {
+        return offsets[index];
+    }
+
+    public int getMoveId(int index) {
+        return moveIds[index];
+    }
+
+    public short getLevel(int index) {
+        return levels[index];
+    }
+
+    /**
+     * The Builder class collects (Palmon ID, move ID, level) rows in the order they are read
+     * and turns them into a LearnsetIndex once the species and moves are known.
+     */
+    public static final class Builder {
+        private int[] palmonIds = new int[1024];
+        private int[] moveIds = new int[1024];
+        private int[] levels = new int[1024];
+        private int entries = 0;
+
+        /**
+         * Adds a row. A later row for the same Palmon and move replaces an earlier one.
+         *
+         * @param palmonId the ID of the Palmon
+         * @param moveId   the ID of the move
+         * @param level    the level the move is learned on
+         * Time Complexity: amortized O(1)
+         */
+        public void add(int palmonId, int moveId, int level) {
+            if (entries == palmonIds.length) {
+                palmonIds = Arrays.copyOf(palmonIds, entries * 2);
+                moveIds = Arrays.copyOf(moveIds, entries * 2);
+                levels = Arrays.copyOf(levels, entries * 2);
+            }
+            palmonIds[entries] = palmonId;
+            moveIds[entries] = moveId;
+            levels[entries] = level;
+            entries++;
+        }
+
+        /**
+         * Appends all rows of another builder.
+         *
+         * @param other the builder to append
+         * Time Complexity: O(e) where e is the number of rows of the other builder
+         */
+        public void addAll(Builder other) {
+            for (int i = 0; i < other.entries; i++) {
+                add(other.palmonIds[i], other.moveIds[i], other.levels[i]);
+            }
+        }
+
+        /**
+         * Builds the index. The row of a species is its position in the list of Palmons; rows for
+         * unknown Palmons or moves are dropped.
+         *
+         * @param palmons the Palmons, in ordinal order
+         * @param moves   the known moves
+         * @return the index
+         * @throws IllegalArgumentException if a level does not fit into a short
+         * Time Complexity: O(e log e + k) where e is the number of rows and k the largest ID
+         */
+        public LearnsetIndex build(List<PalmonSpecies> palmons, List<MoveSpec> moves) {
+            int maxPalmonId = -1;
+            for (PalmonSpecies palmon : palmons) {
+                maxPalmonId = Math.max(maxPalmonId, palmon.getId());
+            }
+            int[] ordinalById = new int[maxPalmonId + 1];
+            Arrays.fill(ordinalById, -1);
+            for (int ordinal = 0; ordinal < palmons.size(); ordinal++) {
+                ordinalById[palmons.get(ordinal).getId()] = ordinal;
+            }
+
+            int maxMoveId = -1;
+            for (MoveSpec move : moves) {
+                maxMoveId = Math.max(maxMoveId, move.getId());
+            }
+            // Holds the row + 1 that last kept a move, so every move is kept once per row
+            int[] keptInRow = new int[maxMoveId + 1];
+            Arrays.fill(keptInRow, -1);
+            for (MoveSpec move : moves) {
+                keptInRow[move.getId()] = 0;
+            }
+
+            // Counting sort of the rows by species ordinal; keeps the file order within a row
+            int speciesCount = palmons.size();
+            int[] rowStarts = new int[speciesCount + 1];
+            int[] rows = new int[entries];
+            for (int i = 0; i < entries; i++) {
+                int palmonId = palmonIds[i];
+                int moveId = moveIds[i];
+                int ordinal = palmonId >= 0 && palmonId <= maxPalmonId ? ordinalById[palmonId] : -1;
+                boolean knownMove = moveId >= 0 && moveId <= maxMoveId && keptInRow[moveId] >= 0;
+                rows[i] = knownMove ? ordinal : -1;
+                if (rows[i] >= 0) {
+                    if (levels[i] < 0 || levels[i] > Short.MAX_VALUE) {
+                        throw new IllegalArgumentException("Level " + levels[i] + " of move " + moveId + " is out of range");
+                    }
+                    rowStarts[rows[i] + 1]++;
+                }
+            }
+            for (int row = 0; row < speciesCount; row++) {
+                rowStarts[row + 1] += rowStarts[row];
+            }
+            int[] ordered = new int[rowStarts[speciesCount]];
+            int[] cursors = Arrays.copyOf(rowStarts, speciesCount);
+            for (int i = 0; i < entries; i++) {
+                if (rows[i] >= 0) {
+                    ordered[cursors[rows[i]]++] = i;
+                }
+            }
+
+            int[] offsets = new int[speciesCount + 1];
+            int[] rowMoveIds = new int[ordered.length];
+            short[] rowLevels = new short[ordered.length];
+            long[] keys = new long[ordered.length];
+            int size = 0;
+            for (int row = 0; row < speciesCount; row++) {
+                offsets[row] = size;
+                // Walk the row backwards, so the last row read for a move wins
+                int rowSize = 0;
+                for (int j = rowStarts[row + 1] - 1; j >= rowStarts[row]; j--) {
+                    int entry = ordered[j];
+                    if (keptInRow[moveIds[entry]] != row + 1) {
+                        keptInRow[moveIds[entry]] = row + 1;
+                        keys[rowSize++] = (long) levels[entry] << 32 | moveIds[entry];
+                    }
+                }
+                Arrays.sort(keys, 0, rowSize);
+                for (int j = 0; j < rowSize; j++) {
+                    rowLevels[size] = (short) (keys[j] >>> 32);
+                    rowMoveIds[size] = (int) keys[j];
+                    size++;
+                }
+            }
+            offsets[speciesCount] = size;
+            return new LearnsetIndex(offsets, Arrays.copyOf(rowMoveIds, size), Arrays.copyOf(rowLevels, size));
+        }
+    }
+}
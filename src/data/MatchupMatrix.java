@@ -0,0 +1,57 @@
+package data;
+
+import java.nio.FloatBuffer;
+
+/**
+ * The MatchupMatrix class holds the win rate of every species against every other species, stored as a
+ * row-major float matrix indexed by species ordinals. Row i, column j is the share of battles that a single
+ * Palmon of species i on the player level won against a single Palmon of species j on the opponent level.
+ * The player attacks first on equal speed, so the matrix is not symmetric.
+ * The matrix is usually a view of a memory-mapped file written by the MatchupMatrixService.
+ */
+public class MatchupMatrix {
+    private final int speciesCount;
+    private final int playerLevel;
+    private final int opponentLevel;
+    private final int simulations;
+    private final FloatBuffer winRates;
+
+    public MatchupMatrix(int speciesCount, int playerLevel, int opponentLevel, int simulations, FloatBuffer winRates) {
+        if (winRates.capacity() != speciesCount * speciesCount) {
+            throw new IllegalArgumentException("Expected " + speciesCount * speciesCount + " win rates");
+        }
+        this.speciesCount = speciesCount;
+        this.playerLevel = playerLevel;
+        this.opponentLevel = opponentLevel;
+        this.simulations = simulations;
+        this.winRates = winRates;
+    }
+
+    /**
+     * Gets the win rate of a species against another species.
+     *
+     * @param playerOrdinal   the ordinal of the species on the player side
+     * @param opponentOrdinal the ordinal of the species on the opponent side
+     * @return the share of battles won by the player side, between 0 and 1
+     * Time Complexity: O(1)
+     */
+    public float getWinRate(int playerOrdinal, int opponentOrdinal) {
+        return winRates.get(playerOrdinal * speciesCount + opponentOrdinal);
+    }
+
+    public int getSpeciesCount() {
+        return speciesCount;
+    }
+
+    public int getPlayerLevel() {
+        return playerLevel;
+    }
+
+    public int getOpponentLevel() {
+        return opponentLevel;
+    }
+
+    public int getSimulations() {
+        return simulations;
+    }
+}
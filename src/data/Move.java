@@ -2,35 +2,43 @@ package data;
 
 import java.io.Serializable;
 
+/**
+ * A move known by a Palmon in a team. The move data is shared through its MoveSpec,
+ * only the number of usages belongs to this instance.
+ */
 public class Move implements Serializable {
-    public final int id;
-
-    final String name;
-    final int damage;
-    private int maxUsages;
+    private final MoveSpec spec;
     private int usages = 0;
-    final int accuracy;
-    private final String type;
-
-    public Move(int id, String name, int damage, int maxUsages, int accuracy, String type) {
-        this.id = id;
-        this.name = name;
-        this.damage = damage;
-        this.maxUsages = maxUsages;
-        this.accuracy = accuracy;
-        this.type = type;
+
+    public Move(MoveSpec spec) {
+        this.spec = spec;
+    }
+
+    /**
+     * Creates a move that has already been used, for example to restore a recorded battle.
+     *
+     * @param spec   the move data
+     * @param usages the number of times the move has been used
+     */
+    public Move(MoveSpec spec, int usages) {
+        this.spec = spec;
+        this.usages = usages;
+    }
+
+    public MoveSpec getSpec() {
+        return spec;
     }
 
     public int getId() {
-        return id;
+        return spec.getId();
     }
 
     public String getName() {
-        return name;
+        return spec.getName();
     }
 
     public int getDamage() {
-        return damage;
+        return spec.getDamage();
     }
 
     public int getUsages() {
@@ -38,15 +46,19 @@ public class Move implements Serializable {
     }
 
     public int getMaxUsages() {
-        return maxUsages;
+        return spec.getMaxUsages();
+    }
+
+    public int getRemainingUsages() {
+        return spec.getMaxUsages() - usages;
     }
 
     public int getAccuracy() {
-        return accuracy;
+        return spec.getAccuracy();
     }
 
     public String getType() {
-        return type;
+        return spec.getType();
     }
 
     public void use() {
@@ -54,19 +66,19 @@ public class Move implements Serializable {
     }
 
     public boolean isUsable() {
-        return usages < maxUsages;
+        return usages < spec.getMaxUsages();
     }
 
     @Override
     public String toString() {
         return "Move{" +
-                "id=" + id +
-                ", name='" + name + '\'' +
-                ", damage=" + damage +
-                ", maxUsages=" + maxUsages +
+                "id=" + spec.getId() +
+                ", name='" + spec.getName() + '\'' +
+                ", damage=" + spec.getDamage() +
+                ", maxUsages=" + spec.getMaxUsages() +
                 ", usages=" + usages +
-                ", accuracy=" + accuracy +
-                ", type='" + type + '\'' +
+                ", accuracy=" + spec.getAccuracy() +
+                ", type='" + spec.getType() + '\'' +
                 '}';
     }
 }
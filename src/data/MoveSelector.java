@@ -0,0 +1,31 @@
+package data;
+
+/**
+ * A MoveSelector decides which fight move the active Palmon of one side of a battle uses.
+ * Implementations must not mutate the battle; they only read the state exposed by the BattleEngine.
+ * Besides RANDOM and GREEDY, the ExpectimaxMoveSelector searches a few attacks ahead.
+ */
+@FunctionalInterface
+public interface MoveSelector {
+
+    /**
+     * Picks a uniformly random move from the attacker's usable fight moves, using the engine's random generator.
+     */
+    MoveSelector RANDOM = (engine, side) -> engine.getUsableMove(side,
+            engine.getRandom().nextInt(engine.getUsableMoveCount(side)));
+
+    /**
+     * Picks the usable move with the highest expected damage against the defender, see GreedyMoveSelector.
+     */
+    MoveSelector GREEDY = new GreedyMoveSelector();
+
+    /**
+     * Chooses the move for the active Palmon of the given side.
+     * Only called when the active Palmon has at least one usable fight move, and the chosen move must have usages left.
+     *
+     * @param engine the engine running the battle
+     * @param side   the side that attacks, either BattleEngine.PLAYER or BattleEngine.OPPONENT
+     * @return the index of the chosen move in the attacker's fight moves
+     */
+    int selectMove(BattleEngine engine, int side);
+}
@@ -0,0 +1,80 @@
+package data;
+
+import java.io.Serializable;
+
+/**
+ * The MoveSpec class holds the immutable data of a move as loaded from moves.csv.
+ * Move specs are shared by every Palmon that knows the move; the remaining usages of a move
+ * in a team live in Move.
+ */
+public class MoveSpec implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final int id;
+    private final String name;
+    private final int damage;
+    private final int maxUsages;
+    private final int accuracy;
+    private final int typeOrdinal;
+
+    public MoveSpec(int id, String name, int damage, int maxUsages, int accuracy, int typeOrdinal) {
+        this.id = id;
+        this.name = name;
+        this.damage = damage;
+        this.maxUsages = maxUsages;
+        this.accuracy = accuracy;
+        this.typeOrdinal = typeOrdinal;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getDamage() {
+        return damage;
+    }
+
+    public int getMaxUsages() {
+        return maxUsages;
+    }
+
+    public int getAccuracy() {
+        return accuracy;
+    }
+
+    /**
+     * Gets the name of the move's type, as interned by the TypeTable.
+     *
+     * @return the name of the type
+     * Time Complexity: O(1)
+     */
+    public String getType() {
+        return TypeTable.nameOf(typeOrdinal);
+    }
+
+    /**
+     * Gets the TypeTable ordinal of the move's type.
+     *
+     * @return the ordinal of the type
+     * Time Complexity: O(1)
+     */
+    public int getTypeOrdinal() {
+        return typeOrdinal;
+    }
+
+    @Override
+    public String toString() {
+        return "MoveSpec{" +
+                "id=" + id +
+                ", name='" + name + '\'' +
+                ", damage=" + damage +
+                ", maxUsages=" + maxUsages +
+                ", accuracy=" + accuracy +
+                ", type='" + getType() + '\'' +
+                '}';
+    }
+}
@@ -2,78 +2,61 @@
 
 import java.io.Serializable;
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.List;
 
 import service.DataStorageService;
 import utils.ConsoleHelpers.TableCreator;
 
+/**
+ * A Palmon in a team. The species data is shared through its PalmonSpecies,
+ * only the level, the current health and the fight moves belong to this instance.
+ */
 public class Palmon implements Serializable {
-    public final int id;
-    public final String name;
-    private final int height;
-    private final int weight;
-    public final String[] types = new String[2];
+    private final PalmonSpecies species;
     int hp;
-    private final int attack;
-    private final int defense;
-    public final int speed;
     private int level = 100;
     public static final int maxMoves = 4;
-    private Map<Integer, Integer> moves = new HashMap<>();
     private ArrayList<Move> fightMoves = new ArrayList<>();
 
     public boolean isDefeated = false;
 
-    public Palmon(int id, String name, int height, int weight, String type1, String type2,
-                  int hp, int attack, int defense, int speed) {
-        this.id = id;
-        this.name = name;
-        this.height = height;
-        this.weight = weight;
-        this.types[0] = type1;
-        this.types[1] = type2;
-        this.hp = hp;
-        this.attack = attack;
-        this.defense = defense;
-        this.speed = speed;
+    public Palmon(PalmonSpecies species) {
+        this.species = species;
+        this.hp = species.getHp();
     }
 
     @Override
     public String toString() {
         return "Palmon{" +
-                "id=" + id +
-                ", name='" + name + '\'' +
-                ", primaryType='" + types[0] + '\'' +
-                ", secondaryType='" + types[1] + '\'' +
+                "id=" + species.getId() +
+                ", name='" + species.getName() + '\'' +
+                ", primaryType='" + species.getPrimaryType() + '\'' +
+                ", secondaryType='" + species.getSecondaryType() + '\'' +
                 ", level=" + level +
-                ", height=" + height +
-                ", weight=" + weight +
                 ", hp=" + hp +
-                ", attack=" + attack +
-                ", defense=" + defense +
-                ", speed=" + speed +
                 ", defeated=" + isDefeated +
-                ", moves=" + moves +
+                ", fightMoves=" + fightMoves +
                 '}';
     }
 
+    public PalmonSpecies getSpecies() {
+        return species;
+    }
+
     public int getId() {
-        return id;
+        return species.getId();
     }
 
     public String getName() {
-        return name;
+        return species.getName();
     }
 
     public String getPrimaryType() {
-        return types[0];
+        return species.getPrimaryType();
     }
 
     public String getSecondaryType() {
-        return types[1];
+        return species.getSecondaryType();
     }
 
     public int getLevel() {
@@ -85,11 +68,11 @@ public class Palmon implements Serializable {
     }
 
     public int getHeight() {
-        return height;
+        return species.getHeight();
     }
 
     public int getWeight() {
-        return weight;
+        return species.getWeight();
     }
 
     public int getHp() {
@@ -101,28 +84,24 @@ public class Palmon implements Serializable {
     }
 
     public int getAttack() {
-        return attack;
+        return species.getAttack();
     }
 
     public int getDefense() {
-        return defense;
+        return species.getDefense();
     }
 
     public int getSpeed() {
-        return speed;
-    }
-
-    // Method to add a move
-    public void addMove(int moveId, int learnedOnLevel) {
-        moves.put(moveId, learnedOnLevel);
+        return species.getSpeed();
     }
 
     public void printMoves() {
-        for (Map.Entry<Integer, Integer> move : moves.entrySet()) {
-            Optional<Move> moveData = DataStorageService.getMoveById(move.getKey());
-            if (moveData.isPresent()) {
-                System.out.println("Move ID: " + move.getKey() + ", Name: " + moveData.get().getName()
-                        + ", Learned On Level: " + move.getValue());
+        Learnset learnset = species.getLearnset();
+        for (int i = 0; i < learnset.size(); i++) {
+            MoveSpec moveData = DataStorageService.getMoveOrNull(learnset.getMoveId(i));
+            if (moveData != null) {
+                System.out.println("Move ID: " + moveData.getId() + ", Name: " + moveData.getName()
+                        + ", Learned On Level: " + learnset.getLevel(i));
             }
         }
     }
@@ -139,8 +118,8 @@ public class Palmon implements Serializable {
     }
 
     // Getters for the moves
-    public Map<Integer, Integer> getMoves() {
-        return moves;
+    public Learnset getLearnset() {
+        return species.getLearnset();
     }
 
     public boolean isDefeated() {
@@ -152,18 +131,18 @@ public class Palmon implements Serializable {
         TableCreator.printPalmon(this);
     }
 
-    // Method to set the fight moves based on the highest damage
+    // Method to set the fight moves based on the highest damage among the moves learned up to the level
     public void setFightMoves() {
-        fightMoves = moves.keySet().stream()
-                .map(moveId -> {
-                    Optional<Move> move = DataStorageService.getMoveById(moveId);
-                    return move;
-                })
-                .filter(Optional::isPresent)
-                .map(Optional::get)
-                .sorted((m1, m2) -> Integer.compare(m2.getDamage(), m1.getDamage()))
-                .limit(maxMoves)
-                .collect(Collectors.toCollection(ArrayList::new));
+        List<MoveSpec> moves = species.getFightMoves(level);
+        fightMoves = new ArrayList<>(moves.size());
+        for (MoveSpec move : moves) {
+            fightMoves.add(new Move(move));
+        }
+    }
+
+    // Method to set fight moves that were chosen elsewhere, for example when restoring a recorded battle
+    public void setFightMoves(ArrayList<Move> fightMoves) {
+        this.fightMoves = fightMoves;
     }
 
     public ArrayList<Move> getFightMoves() {
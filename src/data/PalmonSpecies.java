@@ -0,0 +1,243 @@
+package data;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import service.DataStorageService;
+
+/**
+ * The PalmonSpecies class holds the immutable data of a Palmon species as loaded from palmon.csv.
+ * Species are shared by every team and battle; the state of a single Palmon in a team lives in Palmon.
+ * When the catalogue is assembled, every species is linked to its ordinal and to its row of the LearnsetIndex.
+ * The fight moves for a level are selected lazily and cached per level breakpoint: they only depend on how many
+ * moves are learnable up to the level, so a species has at most one cached set per distinct learn level.
+ * A serialized species, for example in a saved Team, is read back as the linked species of the catalogue with
+ * the same ID.
+ */
+public class PalmonSpecies implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final int id;
+    private final String name;
+    private final int height;
+    private final int weight;
+    private final int primaryTypeOrdinal;
+    private final int secondaryTypeOrdinal;
+    private final int hp;
+    private final int attack;
+    private final int defense;
+    private final int speed;
+    // The links into the catalogue are not serialized, a deserialized species is resolved against the catalogue
+    private transient int ordinal = -1;
+    private transient Learnset learnset = Learnset.EMPTY;
+    private transient AtomicReferenceArray<List<MoveSpec>> fightMoveSets = new AtomicReferenceArray<>(1);
+
+    public PalmonSpecies(int id, String name, int height, int weight, int primaryTypeOrdinal, int secondaryTypeOrdinal,
+                         int hp, int attack, int defense, int speed) {
+        this.id = id;
+        this.name = name;
+        this.height = height;
+        this.weight = weight;
+        this.primaryTypeOrdinal = primaryTypeOrdinal;
+        this.secondaryTypeOrdinal = secondaryTypeOrdinal;
+        this.hp = hp;
+        this.attack = attack;
+        this.defense = defense;
+        this.speed = speed;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getWeight() {
+        return weight;
+    }
+
+    /**
+     * Gets the name of the primary type. Type names are interned by the TypeTable, so all species and moves
+     * of a type share the same String.
+     *
+     * @return the name of the primary type
+     * Time Complexity: O(1)
+     */
+    public String getPrimaryType() {
+        return TypeTable.nameOf(primaryTypeOrdinal);
+    }
+
+    /**
+     * Gets the name of the secondary type, an empty string if the species has none.
+     *
+     * @return the name of the secondary type
+     * Time Complexity: O(1)
+     */
+    public String getSecondaryType() {
+        return TypeTable.nameOf(secondaryTypeOrdinal);
+    }
+
+    /**
+     * Gets the TypeTable ordinal of the primary type.
+     *
+     * @return the ordinal of the primary type
+     * Time Complexity: O(1)
+     */
+    public int getPrimaryTypeOrdinal() {
+        return primaryTypeOrdinal;
+    }
+
+    /**
+     * Gets the TypeTable ordinal of the secondary type, TypeTable.NONE if the species has none.
+     *
+     * @return the ordinal of the secondary type
+     * Time Complexity: O(1)
+     */
+    public int getSecondaryTypeOrdinal() {
+        return secondaryTypeOrdinal;
+    }
+
+    public int getHp() {
+        return hp;
+    }
+
+    public int getAttack() {
+        return attack;
+    }
+
+    public int getDefense() {
+        return defense;
+    }
+
+    public int getSpeed() {
+        return speed;
+    }
+
+    /**
+     * Gets the position of the species in the catalogue, which selects its row in the LearnsetIndex.
+     *
+     * @return the ordinal, or -1 if the species is not linked yet
+     * Time Complexity: O(1)
+     */
+    public int getOrdinal() {
+        return ordinal;
+    }
+
+    /**
+     * Gets the moves the species can learn, sorted by the level they are learned on.
+     *
+     * @return the learnset, empty if the species is not linked yet
+     * Time Complexity: O(1)
+     */
+    public Learnset getLearnset() {
+        return learnset;
+    }
+
+    /**
+     * Links the species to its ordinal and learnset. This is done once while the catalogue is assembled,
+     * the species cannot be changed afterwards.
+     *
+     * @param ordinal  the position of the species in the catalogue
+     * @param learnset the moves the species can learn
+     * Time Complexity: O(1)
+     */
+    public void link(int ordinal, Learnset learnset) {
+        if (this.ordinal >= 0) {
+            throw new IllegalStateException(name + " is already linked");
+        }
+        this.ordinal = ordinal;
+        this.learnset = learnset;
+        this.fightMoveSets = new AtomicReferenceArray<>(learnset.size() + 1);
+    }
+
+    /**
+     * Gets the fight moves of a Palmon of this species on the given level: the up to Palmon.maxMoves most damaging
+     * moves that are learned on or below the level. If the species learns no move up to the level, the moves it
+     * learns earliest are used instead. Ties are resolved in favour of the move learned first.
+     *
+     * @param level the level of the Palmon
+     * @return an unmodifiable list of the fight moves, strongest first
+     * Time Complexity: O(log m) if cached, otherwise O(m) where m is the number of moves in the learnset
+     */
+    public List<MoveSpec> getFightMoves(int level) {
+        int count = learnset.countUpToLevel(level);
+        if (count == 0 && !learnset.isEmpty()) {
+            count = learnset.countUpToLevel(learnset.getLevel(0));
+        }
+        List<MoveSpec> fightMoves = fightMoveSets.get(count);
+        if (fightMoves == null) {
+            // Computing the same set twice in a race is harmless, both results are equal
+            fightMoves = selectFightMoves(count);
+            fightMoveSets.set(count, fightMoves);
+        }
+        return fightMoves;
+    }
+
+    /**
+     * Selects the most damaging moves among the first moves of the learnset by insertion into a small array.
+     *
+     * @param count the number of moves of the learnset to choose from
+     * @return an unmodifiable list of the fight moves, strongest first
+     * Time Complexity: O(m) where m is the number of moves to choose from
+     */
+    private List<MoveSpec> selectFightMoves(int count) {
+        MoveSpec[] best = new MoveSpec[Palmon.maxMoves];
+        int size = 0;
+        for (int i = 0; i < count; i++) {
+            MoveSpec move = DataStorageService.getMoveOrNull(learnset.getMoveId(i));
+            if (move == null || (size == best.length && move.getDamage() <= best[size - 1].getDamage())) {
+                continue;
+            }
+            int position = size == best.length ? size - 1 : size++;
+            while (position > 0 && best[position - 1].getDamage() < move.getDamage()) {
+                best[position] = best[position - 1];
+                position--;
+            }
+            best[position] = move;
+        }
+        return List.of(Arrays.copyOf(best, size));
+    }
+
+    /**
+     * Replaces a deserialized species by the species of the catalogue with the same ID and name, so it shares
+     * the learnset and cached fight moves. If the catalogue does not hold it, the species stays unlinked.
+     *
+     * @return the species to use
+     * Time Complexity: O(1)
+     */
+    private Object readResolve() {
+        PalmonSpecies linked = DataStorageService.getPalmonOrNull(id);
+        if (linked != null && linked.name.equals(name)) {
+            return linked;
+        }
+        ordinal = -1;
+        learnset = Learnset.EMPTY;
+        fightMoveSets = new AtomicReferenceArray<>(1);
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "PalmonSpecies{" +
+                "id=" + id +
+                ", name='" + name + '\'' +
+                ", primaryType='" + getPrimaryType() + '\'' +
+                ", secondaryType='" + getSecondaryType() + '\'' +
+                ", height=" + height +
+                ", weight=" + weight +
+                ", hp=" + hp +
+                ", attack=" + attack +
+                ", defense=" + defense +
+                ", speed=" + speed +
+                ", learnset=" + learnset.size() +
+                '}';
+    }
+}
@@ -0,0 +1,118 @@
+package data;
+
+/**
+ * The SimulationResult class aggregates the outcomes of many simulated battles of the same matchup.
+ * All values are seen from the player's side.
+ */
+public class SimulationResult {
+    private static final double Z_95 = 1.959963984540054;
+
+    private final long simulations;
+    private final long playerWins;
+    private final long opponentWins;
+    private final long draws;
+    private final long totalTurns;
+
+    public SimulationResult(long simulations, long playerWins, long opponentWins, long draws, long totalTurns) {
+        this.simulations = simulations;
+        this.playerWins = playerWins;
+        this.opponentWins = opponentWins;
+        this.draws = draws;
+        this.totalTurns = totalTurns;
+    }
+
+    /**
+     * Combines two partial results into one.
+     *
+     * @param other the result to add
+     * @return the combined result
+     * Time Complexity: O(1)
+     */
+    public SimulationResult merge(SimulationResult other) {
+        return new SimulationResult(simulations + other.simulations, playerWins + other.playerWins,
+                opponentWins + other.opponentWins, draws + other.draws, totalTurns + other.totalTurns);
+    }
+
+    public long getSimulations() {
+        return simulations;
+    }
+
+    public long getPlayerWins() {
+        return playerWins;
+    }
+
+    public long getOpponentWins() {
+        return opponentWins;
+    }
+
+    public long getDraws() {
+        return draws;
+    }
+
+    public long getTotalTurns() {
+        return totalTurns;
+    }
+
+    /**
+     * Gets the estimated probability that the player's team wins.
+     *
+     * @return the share of simulations won by the player
+     * Time Complexity: O(1)
+     */
+    public double getWinProbability() {
+        return simulations == 0 ? 0 : (double) playerWins / simulations;
+    }
+
+    /**
+     * Gets the lower bound of the 95% Wilson score interval of the win probability.
+     *
+     * @return the lower bound
+     * Time Complexity: O(1)
+     */
+    public double getConfidenceLower() {
+        return wilsonBound(-1);
+    }
+
+    /**
+     * Gets the upper bound of the 95% Wilson score interval of the win probability.
+     *
+     * @return the upper bound
+     * Time Complexity: O(1)
+     */
+    public double getConfidenceUpper() {
+        return wilsonBound(1);
+    }
+
+    /**
+     * Gets the average number of turns per battle.
+     *
+     * @return the average number of turns
+     * Time Complexity: O(1)
+     */
+    public double getAverageTurns() {
+        return simulations == 0 ? 0 : (double) totalTurns / simulations;
+    }
+
+    private double wilsonBound(int sign) {
+        if (simulations == 0) {
+            return sign < 0 ? 0 : 1;
+        }
+        double n = simulations;
+        double p = getWinProbability();
+        double z2 = Z_95 * Z_95;
+        double center = p + z2 / (2 * n);
+        double margin = Z_95 * Math.sqrt(p * (1 - p) / n + z2 / (4 * n * n));
+        return (center + sign * margin) / (1 + z2 / n);
+    }
+
+    @Override
+    public String toString() {
+        return "SimulationResult{" +
+                "simulations=" + simulations +
+                ", winProbability=" + getWinProbability() +
+                ", confidenceInterval=[" + getConfidenceLower() + ", " + getConfidenceUpper() + "]" +
+                ", draws=" + draws +
+                ", averageTurns=" + getAverageTurns() +
+                '}';
+    }
+}
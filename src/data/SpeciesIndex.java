@@ -0,0 +1,267 @@
+package data;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The SpeciesIndex class holds the statistics of the catalogue that tables need to lay out their columns,
+ * and the orders of the species by every sortable key. An order is an array of species ordinals sorted by
+ * the key, ties in ordinal order. Orders are built on first use, so keys that are never sorted by cost nothing.
+ * Species with values in a range, or names with a prefix, are found by a binary search over the order of the key.
+ */
+public final class SpeciesIndex {
+    public static final int ID = 0;
+    public static final int NAME = 1;
+    public static final int HEIGHT = 2;
+    public static final int WEIGHT = 3;
+    public static final int HP = 4;
+    public static final int ATTACK = 5;
+    public static final int DEFENSE = 6;
+    public static final int SPEED = 7;
+    public static final List<String> KEYS = List.of("id", "name", "height", "weight", "hp", "attack", "defense",
+            "speed");
+    public static final SpeciesIndex EMPTY = build(List.of());
+
+    private final List<PalmonSpecies> palmons;
+    private final AtomicReferenceArray<int[]> orders = new AtomicReferenceArray<>(KEYS.size());
+    private final int[] maxValues = new int[KEYS.size()];
+    private final int maxNameLength;
+    private final int maxTypeLength;
+
+    private SpeciesIndex(List<PalmonSpecies> palmons) {
+        this.palmons = palmons;
+        int nameLength = 0;
+        for (PalmonSpecies palmon : palmons) {
+            nameLength = Math.max(nameLength, palmon.getName().length());
+            for (int key = 0; key < maxValues.length; key++) {
+                if (key != NAME) {
+                    maxValues[key] = Math.max(maxValues[key], valueOf(palmon, key));
+                }
+            }
+        }
+        int typeLength = 0;
+        for (int type = 0; type < TypeTable.size(); type++) {
+            typeLength = Math.max(typeLength, TypeTable.nameOf(type).length());
+        }
+        this.maxNameLength = nameLength;
+        this.maxTypeLength = typeLength;
+    }
+
+    /**
+     * Builds the index and the statistics of the catalogue. The orders are not built yet.
+     *
+     * @param palmons the species, in ordinal order
+     * @return the index
+     * Time Complexity: O(n + t) where n is the number of species and t the number of types
+     */
+    public static SpeciesIndex build(List<PalmonSpecies> palmons) {
+        return new SpeciesIndex(palmons);
+    }
+
+    /**
+     * Gets the key of the given name, ignoring case.
+     *
+     * @param name the name of the key, one of KEYS
+     * @return the key, or -1 if the name is unknown
+     * Time Complexity: O(k) where k is the number of keys
+     */
+    public static int keyOf(String name) {
+        return KEYS.indexOf(name.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Gets the value of a numeric key of a species.
+     *
+     * @param palmon the species
+     * @param key    the key, any but NAME
+     * @return the value
+     * Time Complexity: O(1)
+     */
+    public static int valueOf(PalmonSpecies palmon, int key) {
+        switch (key) {
+            case ID:
+                return palmon.getId();
+            case HEIGHT:
+                return palmon.getHeight();
+            case WEIGHT:
+                return palmon.getWeight();
+            case HP:
+                return palmon.getHp();
+            case ATTACK:
+                return palmon.getAttack();
+            case DEFENSE:
+                return palmon.getDefense();
+            case SPEED:
+                return palmon.getSpeed();
+            default:
+                throw new IllegalArgumentException("Key " + key + " has no numeric value");
+        }
+    }
+
+    /**
+     * Checks if a species has a name starting with a prefix, ignoring case.
+     *
+     * @param palmon the species
+     * @param prefix the prefix
+     * @return true if the name starts with the prefix
+     * Time Complexity: O(p) where p is the length of the prefix
+     */
+    public static boolean hasNamePrefix(PalmonSpecies palmon, String prefix) {
+        return palmon.getName().regionMatches(true, 0, prefix, 0, prefix.length());
+    }
+
+    /**
+     * Gets the number of species in the index.
+     *
+     * @return the number of species
+     * Time Complexity: O(1)
+     */
+    public int size() {
+        return palmons.size();
+    }
+
+    /**
+     * Gets the species at an ordinal.
+     *
+     * @param ordinal the ordinal of the species
+     * @return the species
+     * Time Complexity: O(1)
+     */
+    public PalmonSpecies getPalmon(int ordinal) {
+        return palmons.get(ordinal);
+    }
+
+    /**
+     * Gets the largest value of a numeric key over all species, 0 for an empty catalogue.
+     *
+     * @param key the key, any but NAME
+     * @return the largest value
+     * Time Complexity: O(1)
+     */
+    public int getMaxValue(int key) {
+        return maxValues[key];
+    }
+
+    public int getMaxNameLength() {
+        return maxNameLength;
+    }
+
+    public int getMaxTypeLength() {
+        return maxTypeLength;
+    }
+
+    /**
+     * Gets the ordinals of all species in ascending order of a key, building the order on first use.
+     * The returned array is shared and must not be changed.
+     *
+     * @param key the key to sort by
+     * @return the ordinals, sorted by the key and then by ordinal
+     * Time Complexity: O(1) if built, otherwise O(n log n) where n is the number of species
+     */
+    public int[] order(int key) {
+        int[] order = orders.get(key);
+        if (order == null) {
+            // Building the same order twice in a race is harmless, both results are equal
+            order = key == NAME ? sortByName() : sortByValue(key);
+            orders.set(key, order);
+        }
+        return order;
+    }
+
+    /**
+     * Finds the first position in the order of a numeric key whose value is at least the given one.
+     *
+     * @param key   the key, any but NAME
+     * @param value the value to search for
+     * @return the position, the size of the index if all values are smaller
+     * Time Complexity: O(log n) once the order is built, where n is the number of species
+     */
+    public int lowerBound(int key, int value) {
+        int[] order = order(key);
+        int low = 0;
+        int high = order.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (valueOf(palmons.get(order[middle]), key) < value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Finds the positions in the order of names whose names start with a prefix, ignoring case.
+     *
+     * @param prefix the prefix
+     * @return the first position and the position after the last one
+     * Time Complexity: O(p log n) once the order is built, where p is the length of the prefix
+     */
+    public int[] prefixRange(String prefix) {
+        int[] order = order(NAME);
+        int low = 0;
+        int high = order.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (comparePrefix(palmons.get(order[middle]).getName(), prefix) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        int start = low;
+        high = order.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (comparePrefix(palmons.get(order[middle]).getName(), prefix) <= 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return new int[]{start, low};
+    }
+
+    /**
+     * Compares the start of a name to a prefix, ignoring case, so all names with the prefix compare as equal.
+     */
+    private static int comparePrefix(String name, String prefix) {
+        return String.CASE_INSENSITIVE_ORDER.compare(name.substring(0, Math.min(name.length(), prefix.length())),
+                prefix);
+    }
+
+    /**
+     * Sorts the ordinals by a numeric key. Value and ordinal are packed into one long, so a primitive sort
+     * gives the order without boxing.
+     */
+    private int[] sortByValue(int key) {
+        long[] packed = new long[palmons.size()];
+        for (int ordinal = 0; ordinal < packed.length; ordinal++) {
+            packed[ordinal] = (long) valueOf(palmons.get(ordinal), key) << 32 | ordinal;
+        }
+        Arrays.sort(packed);
+        int[] order = new int[packed.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = (int) packed[i];
+        }
+        return order;
+    }
+
+    private int[] sortByName() {
+        Integer[] boxed = new Integer[palmons.size()];
+        for (int ordinal = 0; ordinal < boxed.length; ordinal++) {
+            boxed[ordinal] = ordinal;
+        }
+        // The sort is stable, so equal names stay in ordinal order
+        Arrays.sort(boxed, (a, b) -> String.CASE_INSENSITIVE_ORDER.compare(palmons.get(a).getName(),
+                palmons.get(b).getName()));
+        int[] order = new int[boxed.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = boxed[i];
+        }
+        return order;
+    }
+}
@@ -0,0 +1,217 @@
+package data;
+
+import java.util.function.Consumer;
+
+/**
+ * The SpeciesQuery class selects species of a SpeciesIndex by type, by a range of a stat and by a name prefix,
+ * sorted by any key of the index. Results are streamed page by page and never collected, so a query takes the
+ * same memory whatever the size of the catalogue.
+ * <p>
+ * The species are walked in the order of the sort key. If a filter is on the sort key itself, it becomes a range
+ * of that order found by binary search; the other filters are checked on every species that is walked.
+ */
+public class SpeciesQuery {
+    private final SpeciesIndex index;
+    private final TypeIndex typeIndex;
+    private int sortKey = SpeciesIndex.ID;
+    private boolean descending;
+    private SpeciesSet types;
+    private int statKey = -1;
+    private int minValue;
+    private int maxValue;
+    private String namePrefix = "";
+
+    /**
+     * Creates a query that selects all species, sorted by ID.
+     *
+     * @param index     the index of the species
+     * @param typeIndex the species by type, with the same ordinals as the index
+     */
+    public SpeciesQuery(SpeciesIndex index, TypeIndex typeIndex) {
+        this.index = index;
+        this.typeIndex = typeIndex;
+    }
+
+    /**
+     * Sorts the species by a key.
+     *
+     * @param key        the key, one of the SpeciesIndex keys
+     * @param descending true to sort from the largest to the smallest value
+     * Time Complexity: O(1)
+     */
+    public void sortBy(int key, boolean descending) {
+        this.sortKey = key;
+        this.descending = descending;
+    }
+
+    /**
+     * Keeps only the species that have a type as their primary or secondary type.
+     *
+     * @param typeOrdinal the ordinal of the type, -1 to keep all types
+     * Time Complexity: O(1)
+     */
+    public void filterType(int typeOrdinal) {
+        this.types = typeOrdinal < 0 ? null : typeIndex.getSpecies(typeOrdinal);
+    }
+
+    /**
+     * Keeps only the species with a value of a numeric key in a range.
+     *
+     * @param key      the key, -1 to keep all values
+     * @param minValue the smallest value (inclusive)
+     * @param maxValue the largest value (inclusive)
+     * Time Complexity: O(1)
+     */
+    public void filterStat(int key, int minValue, int maxValue) {
+        if (key == SpeciesIndex.NAME) {
+            throw new IllegalArgumentException("Names cannot be filtered by a range");
+        }
+        this.statKey = key;
+        this.minValue = minValue;
+        this.maxValue = maxValue;
+    }
+
+    /**
+     * Keeps only the species with a name starting with a prefix, ignoring case.
+     *
+     * @param prefix the prefix, empty to keep all names
+     * Time Complexity: O(1)
+     */
+    public void filterName(String prefix) {
+        this.namePrefix = prefix;
+    }
+
+    /**
+     * Removes all filters, the sort key stays.
+     * Time Complexity: O(1)
+     */
+    public void clearFilters() {
+        types = null;
+        statKey = -1;
+        namePrefix = "";
+    }
+
+    public int getSortKey() {
+        return sortKey;
+    }
+
+    public boolean isDescending() {
+        return descending;
+    }
+
+    /**
+     * Counts the species the query selects.
+     *
+     * @return the number of species
+     * Time Complexity: O(r) where r is the size of the range of the sort key order that is walked,
+     * O(log n) if no filter has to be checked per species
+     */
+    public int count() {
+        int[] range = range();
+        if (!checksEach()) {
+            return range[1] - range[0];
+        }
+        int[] order = index.order(sortKey);
+        int count = 0;
+        for (int position = range[0]; position < range[1]; position++) {
+            if (matches(order[position])) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Streams a page of the selected species, in the order of the query.
+     *
+     * @param page     the number of the page, starting at 0
+     * @param pageSize the number of species on a page
+     * @param rows     receives the species of the page
+     * @return the number of species on the page
+     * Time Complexity: O(r) where r is the size of the range of the sort key order up to the end of the page,
+     * O(log n + s) if no filter has to be checked per species, where s is the page size
+     */
+    public int page(int page, int pageSize, Consumer<PalmonSpecies> rows) {
+        int[] range = range();
+        int[] order = index.order(sortKey);
+        int skip = page * pageSize;
+        int size = range[1] - range[0];
+        int streamed = 0;
+        if (!checksEach()) {
+            for (int i = skip; i < size && streamed < pageSize; i++, streamed++) {
+                rows.accept(index.getPalmon(order[position(range, i)]));
+            }
+            return streamed;
+        }
+        for (int i = 0; i < size && streamed < pageSize; i++) {
+            int ordinal = order[position(range, i)];
+            if (!matches(ordinal)) {
+                continue;
+            }
+            if (skip > 0) {
+                skip--;
+            } else {
+                rows.accept(index.getPalmon(ordinal));
+                streamed++;
+            }
+        }
+        return streamed;
+    }
+
+    /**
+     * Gets the position in the sort key order of the i-th species of the range, in the direction of the query.
+     */
+    private int position(int[] range, int i) {
+        return descending ? range[1] - 1 - i : range[0] + i;
+    }
+
+    /**
+     * Gets the range of the sort key order to walk: all of it, or the species that pass the filter on the sort key.
+     *
+     * @return the first position and the position after the last one
+     * Time Complexity: O(log n) once the order is built
+     */
+    private int[] range() {
+        if (sortKey == statKey) {
+            if (minValue > maxValue) {
+                return new int[]{0, 0};
+            }
+            int end = maxValue == Integer.MAX_VALUE ? index.size() : index.lowerBound(statKey, maxValue + 1);
+            return new int[]{index.lowerBound(statKey, minValue), end};
+        }
+        if (sortKey == SpeciesIndex.NAME && !namePrefix.isEmpty()) {
+            return index.prefixRange(namePrefix);
+        }
+        return new int[]{0, index.size()};
+    }
+
+    /**
+     * Checks if a filter remains that the range of the sort key order does not cover.
+     */
+    private boolean checksEach() {
+        return types != null
+                || (statKey >= 0 && statKey != sortKey)
+                || (!namePrefix.isEmpty() && sortKey != SpeciesIndex.NAME);
+    }
+
+    /**
+     * Checks if a species passes all filters.
+     *
+     * @param ordinal the ordinal of the species
+     * @return true if the species is selected
+     * Time Complexity: O(p) where p is the length of the name prefix
+     */
+    private boolean matches(int ordinal) {
+        if (types != null && !types.contains(ordinal)) {
+            return false;
+        }
+        PalmonSpecies palmon = index.getPalmon(ordinal);
+        if (statKey >= 0) {
+            int value = SpeciesIndex.valueOf(palmon, statKey);
+            if (value < minValue || value > maxValue) {
+                return false;
+            }
+        }
+        return namePrefix.isEmpty() || SpeciesIndex.hasNamePrefix(palmon, namePrefix);
+    }
+}
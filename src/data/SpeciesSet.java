@@ -0,0 +1,100 @@
+package data;
+
+import java.util.Arrays;
+
+/**
+ * The SpeciesSet class is an immutable bitset over species ordinals.
+ * Besides the bits it keeps the number of set bits before every word, so the k-th species of the set
+ * can be found by a binary search over the words instead of a scan over all species.
+ */
+public final class SpeciesSet {
+    public static final SpeciesSet EMPTY = new SpeciesSet(new long[0]);
+
+    private final long[] words;
+    private final int[] ranks;
+
+    /**
+     * Creates a set from its bits. The array is owned by the set afterwards.
+     *
+     * @param words the bits, species ordinal o is stored in bit o % 64 of word o / 64
+     * Time Complexity: O(w) where w is the number of words
+     */
+    SpeciesSet(long[] words) {
+        this.words = words;
+        this.ranks = new int[words.length + 1];
+        for (int i = 0; i < words.length; i++) {
+            ranks[i + 1] = ranks[i] + Long.bitCount(words[i]);
+        }
+    }
+
+    /**
+     * Gets the number of species in the set.
+     *
+     * @return the number of species
+     * Time Complexity: O(1)
+     */
+    public int size() {
+        return ranks[words.length];
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Checks if a species is in the set.
+     *
+     * @param ordinal the ordinal of the species
+     * @return true if the species is in the set
+     * Time Complexity: O(1)
+     */
+    public boolean contains(int ordinal) {
+        int word = ordinal >>> 6;
+        return ordinal >= 0 && word < words.length && (words[word] & 1L << ordinal) != 0;
+    }
+
+    /**
+     * Creates the union of this set and another one.
+     *
+     * @param other the other set
+     * @return a new set holding the species of both sets
+     * Time Complexity: O(w) where w is the number of words
+     */
+    public SpeciesSet or(SpeciesSet other) {
+        long[] union = Arrays.copyOf(words, Math.max(words.length, other.words.length));
+        for (int i = 0; i < other.words.length; i++) {
+            union[i] |= other.words[i];
+        }
+        return new SpeciesSet(union);
+    }
+
+    /**
+     * Gets the species ordinal at a position of the set, in ascending order of ordinals. Drawing a uniform
+     * random position therefore draws a uniform random species of the set.
+     *
+     * @param index the position, between 0 and size() - 1
+     * @return the ordinal of the species
+     * Time Complexity: O(log w) where w is the number of words
+     */
+    public int get(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for set of size " + size());
+        }
+        // Find the last word whose rank is at most the index
+        int low = 0;
+        int high = words.length - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (ranks[middle] <= index) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        long word = words[low];
+        for (int skip = index - ranks[low]; skip > 0; skip--) {
+            word &= word - 1; // Clear the lowest set bit
+        }
+        return (low << 6) + Long.numberOfTrailingZeros(word);
+    }
+}
@@ -0,0 +1,92 @@
+package data;
+
+import java.util.Arrays;
+
+/**
+ * The TypeChart class holds the effectivity multipliers of effectivity.csv as a flat matrix indexed by
+ * the type ordinals of the TypeTable, so a lookup is a single array access.
+ * Pairs that are not listed in the CSV file, for example types that only appear in palmon.csv or
+ * moves.csv, have a neutral multiplier of 1.
+ * The multipliers of a move type against every combination of primary and secondary defender type are
+ * precomputed as well, so dual types cost a single array access per hit too.
+ */
+public class TypeChart {
+    private final int typeCount;
+    private final float[] multipliers;
+    private final float[] combinedMultipliers;
+
+    /**
+     * Creates a TypeChart from a complete matrix of multipliers.
+     *
+     * @param typeCount   the number of type ordinals the chart covers
+     * @param multipliers the multipliers, indexed by attacking type * typeCount + defending type
+     * Time Complexity: O(t^3) where t is the number of types
+     */
+    public TypeChart(int typeCount, float[] multipliers) {
+        if (multipliers.length != typeCount * typeCount) {
+            throw new IllegalArgumentException("Expected " + typeCount * typeCount + " multipliers");
+        }
+        this.typeCount = typeCount;
+        this.multipliers = multipliers.clone();
+
+        // The empty type has a neutral multiplier, so Palmons without a secondary type need no special case
+        this.combinedMultipliers = new float[typeCount * typeCount * typeCount];
+        for (int attacking = 0; attacking < typeCount; attacking++) {
+            for (int primary = 0; primary < typeCount; primary++) {
+                for (int secondary = 0; secondary < typeCount; secondary++) {
+                    combinedMultipliers[(attacking * typeCount + primary) * typeCount + secondary] =
+                            multiplier(attacking, primary) * multiplier(attacking, secondary);
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates a TypeChart from parallel arrays of chart entries.
+     *
+     * @param typeCount      the number of type ordinals the chart covers
+     * @param attackingTypes the attacking type ordinal of each entry
+     * @param defendingTypes the defending type ordinal of each entry
+     * @param factors        the multiplier of each entry
+     * @param entries        the number of entries in the arrays
+     * @return the chart
+     * Time Complexity: O(t^3 + e) where t is the number of types and e the number of entries
+     */
+    public static TypeChart fromEntries(int typeCount, int[] attackingTypes, int[] defendingTypes, float[] factors, int entries) {
+        float[] multipliers = new float[typeCount * typeCount];
+        Arrays.fill(multipliers, 1f);
+        for (int i = 0; i < entries; i++) {
+            multipliers[attackingTypes[i] * typeCount + defendingTypes[i]] = factors[i];
+        }
+        return new TypeChart(typeCount, multipliers);
+    }
+
+    /**
+     * Returns the effectivity multiplier of an attacking type against a defending type.
+     *
+     * @param attackingType the ordinal of the attacking type
+     * @param defendingType the ordinal of the defending type
+     * @return the effectivity multiplier
+     * Time Complexity: O(1)
+     */
+    public float multiplier(int attackingType, int defendingType) {
+        return multipliers[attackingType * typeCount + defendingType];
+    }
+
+    /**
+     * Returns the effectivity multiplier of a move type against a defender with a primary and a secondary type.
+     *
+     * @param moveType      the ordinal of the move's type
+     * @param primaryType   the ordinal of the defender's primary type
+     * @param secondaryType the ordinal of the defender's secondary type, TypeTable.NONE if it has none
+     * @return the product of the multipliers against both defending types
+     * Time Complexity: O(1)
+     */
+    public float multiplier(int moveType, int primaryType, int secondaryType) {
+        return combinedMultipliers[(moveType * typeCount + primaryType) * typeCount + secondaryType];
+    }
+
+    public int getTypeCount() {
+        return typeCount;
+    }
+}
@@ -0,0 +1,80 @@
+package data;
+
+import java.util.List;
+
+/**
+ * The TypeIndex class maps every type ordinal to the set of species that have the type as their primary
+ * or secondary type. Queries for several types are answered by OR-ing the sets of the types.
+ */
+public final class TypeIndex {
+    public static final TypeIndex EMPTY = new TypeIndex(new SpeciesSet[0]);
+
+    private final SpeciesSet[] speciesByType;
+
+    private TypeIndex(SpeciesSet[] speciesByType) {
+        this.speciesByType = speciesByType;
+    }
+
+    /**
+     * Builds the index. The ordinal of a species is its position in the list.
+     *
+     * @param palmons   the species, in ordinal order
+     * @param typeCount the number of type ordinals
+     * @return the index
+     * Time Complexity: O(n + t * n / 64) where n is the number of species and t the number of types
+     */
+    public static TypeIndex build(List<PalmonSpecies> palmons, int typeCount) {
+        long[][] words = new long[typeCount][(palmons.size() + 63) >>> 6];
+        for (int ordinal = 0; ordinal < palmons.size(); ordinal++) {
+            PalmonSpecies palmon = palmons.get(ordinal);
+            if (palmon.getPrimaryTypeOrdinal() != TypeTable.NONE) {
+                words[palmon.getPrimaryTypeOrdinal()][ordinal >>> 6] |= 1L << ordinal;
+            }
+            if (palmon.getSecondaryTypeOrdinal() != TypeTable.NONE) {
+                words[palmon.getSecondaryTypeOrdinal()][ordinal >>> 6] |= 1L << ordinal;
+            }
+        }
+
+        SpeciesSet[] speciesByType = new SpeciesSet[typeCount];
+        for (int type = 0; type < typeCount; type++) {
+            speciesByType[type] = new SpeciesSet(words[type]);
+        }
+        return new TypeIndex(speciesByType);
+    }
+
+    /**
+     * Gets the species that have a type.
+     *
+     * @param typeOrdinal the ordinal of the type
+     * @return the species with the type, empty for unknown types and the empty type
+     * Time Complexity: O(1)
+     */
+    public SpeciesSet getSpecies(int typeOrdinal) {
+        return typeOrdinal >= 0 && typeOrdinal < speciesByType.length ? speciesByType[typeOrdinal] : SpeciesSet.EMPTY;
+    }
+
+    /**
+     * Gets the species that have at least one of the given types.
+     *
+     * @param typeOrdinals the ordinals of the types
+     * @return the species with any of the types
+     * Time Complexity: O(k * n / 64) where k is the number of types and n the number of species
+     */
+    public SpeciesSet getSpecies(int... typeOrdinals) {
+        SpeciesSet union = SpeciesSet.EMPTY;
+        for (int typeOrdinal : typeOrdinals) {
+            union = union.or(getSpecies(typeOrdinal));
+        }
+        return union;
+    }
+
+    /**
+     * Gets the number of type ordinals the index covers.
+     *
+     * @return the number of types
+     * Time Complexity: O(1)
+     */
+    public int getTypeCount() {
+        return speciesByType.length;
+    }
+}
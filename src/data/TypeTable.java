@@ -0,0 +1,83 @@
+package data;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The TypeTable class interns the type names of the catalogue to small integer ordinals.
+ * Ordinals are assigned in the order the names are first seen while loading, so they are stable
+ * for the lifetime of the process but not across runs. Ordinal 0 is reserved for the empty type
+ * that Palmons without a secondary type have.
+ */
+public final class TypeTable {
+    public static final int NONE = 0;
+
+    private static final ConcurrentHashMap<String, Integer> ordinals = new ConcurrentHashMap<>();
+    private static volatile String[] names = new String[0];
+
+    static {
+        intern("");
+    }
+
+    private TypeTable() {
+    }
+
+    /**
+     * Returns the ordinal of the given type name, assigning the next free one if the name is new.
+     * Safe to call from several loading threads at once.
+     *
+     * @param name the type name
+     * @return the ordinal of the type
+     * Time Complexity: O(1) for known names, O(t) for new ones where t is the number of types
+     */
+    public static int intern(String name) {
+        Integer ordinal = ordinals.get(name);
+        if (ordinal != null) {
+            return ordinal;
+        }
+        synchronized (TypeTable.class) {
+            ordinal = ordinals.get(name);
+            if (ordinal == null) {
+                String[] grown = Arrays.copyOf(names, names.length + 1);
+                ordinal = names.length;
+                grown[ordinal] = name;
+                names = grown;
+                ordinals.put(name, ordinal);
+            }
+            return ordinal;
+        }
+    }
+
+    /**
+     * Returns the ordinal of the given type name without registering it.
+     *
+     * @param name the type name
+     * @return the ordinal of the type, or -1 if the name is unknown
+     * Time Complexity: O(1)
+     */
+    public static int ordinalOf(String name) {
+        Integer ordinal = ordinals.get(name);
+        return ordinal == null ? -1 : ordinal;
+    }
+
+    /**
+     * Returns the name of the type with the given ordinal.
+     *
+     * @param ordinal the ordinal of the type
+     * @return the type name
+     * Time Complexity: O(1)
+     */
+    public static String nameOf(int ordinal) {
+        return names[ordinal];
+    }
+
+    /**
+     * Returns the number of known types, including the empty type.
+     *
+     * @return the number of types
+     * Time Complexity: O(1)
+     */
+    public static int size() {
+        return names.length;
+    }
+}
@@ -0,0 +1,162 @@
+package service;
+
+import data.BattleEngine;
+import data.BattleResult;
+import data.MoveSelector;
+import data.SimulationResult;
+import data.Team;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * A service class for estimating the outcome of a matchup by simulating many independent battles.
+ * The simulations are split into fixed-size blocks that run in parallel on a ForkJoinPool. Every block
+ * gets its own SplittableRandom whose seed only depends on the simulation seed and the block index, and
+ * the partial results are plain sums, so the same seed gives identical results for any number of threads.
+ */
+public class BattleSimulator {
+    static final int BLOCK_SIZE = 256;
+
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    /**
+     * Simulates battles between two teams where both sides choose random moves, using the common pool.
+     *
+     * @param playerTeam   the player's team
+     * @param opponentTeam the opponent's team
+     * @param simulations  the number of battles to simulate
+     * @param seed         the seed that determines all random decisions
+     * @return the aggregated result
+     * Time Complexity: O(n * t / p) where n is the number of simulations, t the turns per battle and p the parallelism
+     */
+    public static SimulationResult simulate(Team playerTeam, Team opponentTeam, long simulations, long seed) {
+        return simulate(playerTeam, opponentTeam, simulations, seed,
+                MoveSelector.RANDOM, MoveSelector.RANDOM, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Simulates battles between two teams on the given pool.
+     * The teams are only read, so all blocks share them without copying.
+     *
+     * @param playerTeam       the player's team
+     * @param opponentTeam     the opponent's team
+     * @param simulations      the number of battles to simulate
+     * @param seed             the seed that determines all random decisions
+     * @param playerSelector   chooses the moves of the player's team, must be thread-safe
+     * @param opponentSelector chooses the moves of the opponent's team, must be thread-safe
+     * @param pool             the pool to run the simulations on
+     * @return the aggregated result
+     * Time Complexity: O(n * t / p) where n is the number of simulations, t the turns per battle and p the parallelism
+     */
+    public static SimulationResult simulate(Team playerTeam, Team opponentTeam, long simulations, long seed,
+                                            MoveSelector playerSelector, MoveSelector opponentSelector,
+                                            ForkJoinPool pool) {
+        if (simulations < 0) {
+            throw new IllegalArgumentException("Number of simulations must not be negative");
+        }
+        long blocks = (simulations + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        Simulation simulation = new Simulation(playerTeam, opponentTeam, simulations, seed, playerSelector, opponentSelector);
+        return pool.invoke(new SimulationTask(simulation, 0, blocks));
+    }
+
+    /**
+     * Runs one block of simulations sequentially with a single engine and random generator.
+     *
+     * @param simulation the simulation the block belongs to
+     * @param block      the index of the block
+     * @return the result of the block
+     * Time Complexity: O(b * t) where b is the block size and t the turns per battle
+     */
+    private static SimulationResult runBlock(Simulation simulation, long block) {
+        SplittableRandom random = new SplittableRandom(blockSeed(simulation.seed, block));
+        BattleEngine engine = new BattleEngine(simulation.playerSelector, simulation.opponentSelector, random);
+
+        long start = block * BLOCK_SIZE;
+        long end = Math.min(start + BLOCK_SIZE, simulation.simulations);
+        long playerWins = 0;
+        long opponentWins = 0;
+        long draws = 0;
+        long turns = 0;
+        for (long i = start; i < end; i++) {
+            BattleResult result = engine.run(simulation.playerTeam, simulation.opponentTeam);
+            switch (result.getWinner()) {
+                case BattleEngine.PLAYER -> playerWins++;
+                case BattleEngine.OPPONENT -> opponentWins++;
+                default -> draws++;
+            }
+            turns += result.getTurns();
+        }
+        return new SimulationResult(end - start, playerWins, opponentWins, draws, turns);
+    }
+
+    /**
+     * Derives the seed of a block. The value equals the (block + 1)-th call of nextLong() on a
+     * SplittableRandom created with the simulation seed, without generating the values before it.
+     *
+     * @param seed  the simulation seed
+     * @param block the index of the block
+     * @return the seed of the block
+     * Time Complexity: O(1)
+     */
+    static long blockSeed(long seed, long block) {
+        long z = seed + (block + 1) * GOLDEN_GAMMA;
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * The parameters shared by all blocks of one simulation run.
+     */
+    private static class Simulation {
+        final Team playerTeam;
+        final Team opponentTeam;
+        final long simulations;
+        final long seed;
+        final MoveSelector playerSelector;
+        final MoveSelector opponentSelector;
+
+        Simulation(Team playerTeam, Team opponentTeam, long simulations, long seed,
+                   MoveSelector playerSelector, MoveSelector opponentSelector) {
+            this.playerTeam = playerTeam;
+            this.opponentTeam = opponentTeam;
+            this.simulations = simulations;
+            this.seed = seed;
+            this.playerSelector = playerSelector;
+            this.opponentSelector = opponentSelector;
+        }
+    }
+
+    /**
+     * Splits a range of blocks in halves until a single block is left and sums up the results.
+     */
+    // ForkJoinTask is Serializable, but the tasks are never serialized
+    @SuppressWarnings("serial")
+    private static class SimulationTask extends RecursiveTask<SimulationResult> {
+        private final Simulation simulation;
+        private final long fromBlock;
+        private final long toBlock;
+
+        SimulationTask(Simulation simulation, long fromBlock, long toBlock) {
+            this.simulation = simulation;
+            this.fromBlock = fromBlock;
+            this.toBlock = toBlock;
+        }
+
+        @Override
+        protected SimulationResult compute() {
+            if (toBlock - fromBlock <= 1) {
+                return fromBlock < toBlock
+                        ? runBlock(simulation, fromBlock)
+                        : new SimulationResult(0, 0, 0, 0, 0);
+            }
+            long middle = (fromBlock + toBlock) >>> 1;
+            SimulationTask left = new SimulationTask(simulation, fromBlock, middle);
+            left.fork();
+            SimulationResult right = new SimulationTask(simulation, middle, toBlock).compute();
+            return left.join().merge(right);
+        }
+    }
+}
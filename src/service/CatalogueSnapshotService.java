@@ -0,0 +1,221 @@
+package service;
+
+import data.LearnsetIndex;
+import data.MoveSpec;
+import data.PalmonSpecies;
+import data.TypeChart;
+import data.TypeTable;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.zip.CRC32;
+
+/**
+ * A service class for writing the loaded catalogue to a binary snapshot and reading it back on later starts.
+ * The snapshot holds the type table, the effectivity matrix, all Palmons, all Moves and the rows of the LearnsetIndex.
+ * It is stamped with a format version and a checksum of the source CSV files, so it is only used while the
+ * CSV files are unchanged.
+ */
+public class CatalogueSnapshotService {
+    public static final String SNAPSHOT_PATH = "catalogue.snapshot";
+
+    private static final int MAGIC = 0x504C4D4E; // "PLMN"
+    private static final int VERSION = 3;
+
+    /**
+     * Loads the catalogue from the snapshot into the DataStorageService.
+     * Nothing is stored if the snapshot is missing, was written by another version or for other CSV files.
+     *
+     * @return true if the catalogue was loaded from the snapshot
+     * Time Complexity: O(n) where n is the size of the snapshot
+     */
+    public static boolean load() {
+        Path path = Paths.get(SNAPSHOT_PATH);
+        if (!Files.isRegularFile(path)) {
+            return false;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION || buffer.getLong() != sourceChecksum()) {
+                return false;
+            }
+            return read(buffer);
+        } catch (IOException | RuntimeException e) {
+            System.out.println("@CatalogueSnapshotService: Ignoring snapshot " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Writes the catalogue of the DataStorageService to the snapshot. The snapshot is written to a temporary
+     * file first and then moved into place, so a partly written snapshot is never read.
+     * Time Complexity: O(n) where n is the size of the catalogue
+     */
+    public static void save() {
+        Path path = Paths.get(SNAPSHOT_PATH);
+        Path temporary = Paths.get(SNAPSHOT_PATH + ".tmp");
+        try {
+            long checksum = sourceChecksum();
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeLong(checksum);
+                write(out);
+            }
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.out.println("@CatalogueSnapshotService: Error " + e.getMessage());
+        }
+    }
+
+    /**
+     * Computes a CRC32 checksum over the contents of all source CSV files, in the order of their names.
+     *
+     * @return the checksum
+     * @throws IOException if a CSV file cannot be read
+     * Time Complexity: O(n) where n is the total size of the CSV files
+     */
+    static long sourceChecksum() throws IOException {
+        CRC32 crc = new CRC32();
+        for (String name : new TreeSet<>(DataStorageService.getParsers().keySet())) {
+            try (FileChannel channel = FileChannel.open(Paths.get(DataLoadingService.csvPath(name)), StandardOpenOption.READ)) {
+                crc.update(name.getBytes(StandardCharsets.UTF_8));
+                crc.update(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+            }
+        }
+        return crc.getValue();
+    }
+
+    private static void write(DataOutputStream out) throws IOException {
+        TypeChart typeChart = DataStorageService.getTypeChart();
+        int typeCount = typeChart.getTypeCount();
+        out.writeInt(typeCount);
+        for (int ordinal = 0; ordinal < typeCount; ordinal++) {
+            writeString(out, TypeTable.nameOf(ordinal));
+        }
+        for (int attacking = 0; attacking < typeCount; attacking++) {
+            for (int defending = 0; defending < typeCount; defending++) {
+                out.writeFloat(typeChart.multiplier(attacking, defending));
+            }
+        }
+
+        CopyOnWriteArrayList<MoveSpec> moves = DataStorageService.getMoves();
+        out.writeInt(moves.size());
+        for (MoveSpec move : moves) {
+            out.writeInt(move.getId());
+            writeString(out, move.getName());
+            out.writeInt(move.getDamage());
+            out.writeInt(move.getMaxUsages());
+            out.writeInt(move.getAccuracy());
+            out.writeInt(move.getTypeOrdinal());
+        }
+
+        ArrayList<PalmonSpecies> palmons = DataStorageService.getPalmons();
+        out.writeInt(palmons.size());
+        for (PalmonSpecies palmon : palmons) {
+            out.writeInt(palmon.getId());
+            writeString(out, palmon.getName());
+            out.writeInt(palmon.getHeight());
+            out.writeInt(palmon.getWeight());
+            out.writeInt(palmon.getPrimaryTypeOrdinal());
+            out.writeInt(palmon.getSecondaryTypeOrdinal());
+            out.writeInt(palmon.getHp());
+            out.writeInt(palmon.getAttack());
+            out.writeInt(palmon.getDefense());
+            out.writeInt(palmon.getSpeed());
+        }
+
+        LearnsetIndex learnsets = DataStorageService.getLearnsets();
+        out.writeInt(learnsets.getSpeciesCount());
+        out.writeInt(learnsets.getEntryCount());
+        for (int i = 0; i <= learnsets.getSpeciesCount(); i++) {
+            out.writeInt(learnsets.getOffset(i));
+        }
+        for (int i = 0; i < learnsets.getEntryCount(); i++) {
+            out.writeInt(learnsets.getMoveId(i));
+        }
+        for (int i = 0; i < learnsets.getEntryCount(); i++) {
+            out.writeShort(learnsets.getLevel(i));
+        }
+    }
+
+    /**
+     * Reads the catalogue after the header and stores it. The type names are interned in their stored order
+     * first; if the TypeTable hands out other ordinals, the stored ordinals cannot be used and nothing is stored.
+     */
+    private static boolean read(ByteBuffer buffer) {
+        int typeCount = buffer.getInt();
+        for (int ordinal = 0; ordinal < typeCount; ordinal++) {
+            if (TypeTable.intern(readString(buffer)) != ordinal) {
+                return false;
+            }
+        }
+        float[] multipliers = new float[typeCount * typeCount];
+        buffer.asFloatBuffer().get(multipliers);
+        buffer.position(buffer.position() + multipliers.length * Float.BYTES);
+        TypeChart typeChart = new TypeChart(typeCount, multipliers);
+
+        int moveCount = buffer.getInt();
+        ArrayList<MoveSpec> moveList = new ArrayList<>(moveCount);
+        for (int i = 0; i < moveCount; i++) {
+            moveList.add(new MoveSpec(buffer.getInt(), readString(buffer), buffer.getInt(), buffer.getInt(),
+                    buffer.getInt(), checkType(buffer.getInt(), typeCount)));
+        }
+
+        int palmonCount = buffer.getInt();
+        ArrayList<PalmonSpecies> palmons = new ArrayList<>(palmonCount);
+        for (int i = 0; i < palmonCount; i++) {
+            palmons.add(new PalmonSpecies(buffer.getInt(), readString(buffer), buffer.getInt(),
+                    buffer.getInt(), checkType(buffer.getInt(), typeCount), checkType(buffer.getInt(), typeCount), buffer.getInt(),
+                    buffer.getInt(), buffer.getInt(), buffer.getInt()));
+        }
+
+        int speciesCount = buffer.getInt();
+        int entryCount = buffer.getInt();
+        int[] offsets = new int[speciesCount + 1];
+        int[] moveIds = new int[entryCount];
+        short[] levels = new short[entryCount];
+        buffer.asIntBuffer().get(offsets);
+        buffer.position(buffer.position() + offsets.length * Integer.BYTES);
+        buffer.asIntBuffer().get(moveIds);
+        buffer.position(buffer.position() + moveIds.length * Integer.BYTES);
+        buffer.asShortBuffer().get(levels);
+        buffer.position(buffer.position() + levels.length * Short.BYTES);
+        LearnsetIndex learnsets = new LearnsetIndex(offsets, moveIds, levels);
+
+        DataStorageService.assignData(palmons, new CopyOnWriteArrayList<>(moveList), learnsets, typeChart);
+        return true;
+    }
+
+    private static int checkType(int ordinal, int typeCount) {
+        if (ordinal < 0 || ordinal >= typeCount) {
+            throw new IllegalArgumentException("Unknown type ordinal " + ordinal);
+        }
+        return ordinal;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -1,21 +1,76 @@
 package service;
 
+import java.time.Duration;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * The DataIngestingService class provides static methods to load and store CSV data
  * by coordinating with the DataLoadingService and DataStorageService.
+ * If a catalogue snapshot of unchanged CSV files exists, it is loaded instead of the CSV files.
  */
 public class DataIngestingService {
+    private static volatile List<DataLoadingService.FileLoad> fileLoads = List.of();
 
     /**
-     * Loads and stores CSV files by utilizing DataLoadingService and DataStorageService.
+     * Loads and stores the catalogue from its snapshot, or from the CSV files by utilizing DataLoadingService
+     * and DataStorageService, on the common ForkJoinPool and with the default deadline.
      * 
      * @return a CompletableFuture that completes when the data is loaded and stored
      * Time Complexity: O(n)
      */
     public static CompletableFuture<Void> loadAndStoreCSVFiles() {
-        return DataLoadingService.loadCSVFiles(DataStorageService.getParsers())
-                .thenRun(DataStorageService::assignData);
+        return loadAndStoreCSVFiles(ForkJoinPool.commonPool(), DataLoadingService.DEFAULT_DEADLINE);
+    }
+
+    /**
+     * Loads and stores the catalogue from its snapshot, or from the CSV files by utilizing DataLoadingService
+     * and DataStorageService. After loading the CSV files, the snapshot is written for the next start.
+     * Nothing is stored if a file cannot be loaded completely before the deadline; the returned future
+     * then completes exceptionally.
+     *
+     * @param executor the executor to load the data on
+     * @param deadline the time after which loading the CSV files fails
+     * @return a CompletableFuture that completes when the data is loaded and stored
+     * Time Complexity: O(n)
+     */
+    public static CompletableFuture<Void> loadAndStoreCSVFiles(Executor executor, Duration deadline) {
+        return CompletableFuture.supplyAsync(DataIngestingService::loadSnapshot, executor)
+                .thenCompose(loaded -> loaded
+                        ? CompletableFuture.completedFuture(null)
+                        : DataLoadingService.loadCSVFiles(DataStorageService.getParsers(), executor, deadline)
+                                .thenAccept(loads -> {
+                                    fileLoads = List.copyOf(loads);
+                                    DataStorageService.assignData();
+                                    CatalogueSnapshotService.save();
+                                }));
+    }
+
+    /**
+     * Loads the catalogue snapshot and records how long it takes if it was used.
+     *
+     * @return true if the catalogue was loaded from the snapshot
+     * Time Complexity: O(n) where n is the size of the snapshot
+     */
+    private static boolean loadSnapshot() {
+        long start = System.nanoTime();
+        boolean loaded = CatalogueSnapshotService.load();
+        if (loaded) {
+            MetricsService.histogram("ingest.snapshot.nanos").record(System.nanoTime() - start);
+        }
+        return loaded;
+    }
+
+    /**
+     * Gets the load times of the CSV files of the last load. The list is empty if the catalogue
+     * was loaded from its snapshot.
+     *
+     * @return an unmodifiable list of load times
+     * Time Complexity: O(1)
+     */
+    public static List<DataLoadingService.FileLoad> getFileLoads() {
+        return fileLoads;
     }
 }
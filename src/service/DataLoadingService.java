@@ -3,46 +3,144 @@ package service;
 import utils.DataHandling.CSVReader;
 import utils.DataHandling.DataParser;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.TimeUnit;
 
 /**
  * A service class for loading data from CSV files.
  * The class is designed to load data from multiple CSV files concurrently.
+ * Files larger than a chunk are additionally split and parsed in parallel on the common ForkJoinPool.
+ * Every file is loaded by its own CompletableFuture; the combined future only completes normally if
+ * every file was read completely before the deadline, so a truncated catalogue is never used.
+ * If loading fails or misses the deadline, the loads that are still queued or running are cancelled.
  */
 public class DataLoadingService {
+    public static final String RESOURCE_DIRECTORY = "src/resources/";
+    public static final Duration DEFAULT_DEADLINE = Duration.ofSeconds(10);
 
     /**
-     * Load CSV files concurrently.
-     * 
+     * Returns the path of the CSV file that holds the data of the given name.
+     *
+     * @param name the name of the data, for example "palmon"
+     * @return the path of the CSV file
+     * Time Complexity: O(1)
+     */
+    public static String csvPath(String name) {
+        return RESOURCE_DIRECTORY + name + ".csv";
+    }
+
+    /**
+     * Load CSV files concurrently on the common ForkJoinPool, with the default deadline.
+     *
      * @param parsers a map of parsers where the key is the file name and the value is the parser
-     * @return a CompletableFuture that completes when all files are loaded
+     * @return a CompletableFuture that completes with the load time of every file when all files are loaded
      * Time Complexity: O(n) where n is the number of files
      */
-    public static CompletableFuture<Void> loadCSVFiles(Map<String, DataParser> parsers) {
-        return CompletableFuture.runAsync(() -> {
-            ExecutorService executor = Executors.newFixedThreadPool(parsers.size());
-            try {
-                for (Map.Entry<String, DataParser> parser : parsers.entrySet()) {
-                    executor.submit(new CSVReader("src/resources/" + parser.getKey() + ".csv", parser.getValue()));
-                }
-                executor.shutdown();
-                try {
-                    if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
-                        executor.shutdownNow();
+    public static CompletableFuture<List<FileLoad>> loadCSVFiles(Map<String, DataParser> parsers) {
+        return loadCSVFiles(parsers, ForkJoinPool.commonPool(), DEFAULT_DEADLINE);
+    }
+
+    /**
+     * Load CSV files concurrently.
+     * The returned future completes exceptionally if a file cannot be read or parsed, or with a
+     * TimeoutException if not all files are loaded before the deadline. The other files are then cancelled.
+     *
+     * @param parsers  a map of parsers where the key is the file name and the value is the parser
+     * @param executor the executor to read the files on
+     * @param deadline the time after which loading fails
+     * @return a CompletableFuture that completes with the load time of every file when all files are loaded
+     * Time Complexity: O(n) where n is the number of files
+     */
+    public static CompletableFuture<List<FileLoad>> loadCSVFiles(Map<String, DataParser> parsers, Executor executor,
+                                                                 Duration deadline) {
+        List<CompletableFuture<FileLoad>> loads = new ArrayList<>(parsers.size());
+        for (Map.Entry<String, DataParser> parser : parsers.entrySet()) {
+            loads.add(loadCSVFile(parser.getKey(), parser.getValue(), executor));
+        }
+
+        return CompletableFuture.allOf(loads.toArray(new CompletableFuture<?>[0]))
+                .orTimeout(deadline.toNanos(), TimeUnit.NANOSECONDS)
+                .whenComplete((ignored, e) -> {
+                    if (e != null) {
+                        loads.forEach(load -> load.cancel(true));
+                    }
+                })
+                .thenApply(ignored -> {
+                    List<FileLoad> results = new ArrayList<>(loads.size());
+                    for (CompletableFuture<FileLoad> load : loads) {
+                        results.add(load.join());
                     }
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    executor.shutdownNow();
-                    System.out.println("File loading stopped.");
-                }
-            } catch (Exception e) {
-                executor.shutdownNow();
-                e.printStackTrace();
+                    return results;
+                });
+    }
+
+    /**
+     * Loads a single CSV file and measures how long it takes and how many rows it has.
+     *
+     * @param name     the name of the data, for example "palmon"
+     * @param parser   the parser for the file
+     * @param executor the executor to read the file on
+     * @return a CompletableFuture that completes with the load time and rows of the file
+     * Time Complexity: O(n) where n is the size of the file
+     */
+    private static CompletableFuture<FileLoad> loadCSVFile(String name, DataParser parser, Executor executor) {
+        CSVReader reader = new CSVReader(csvPath(name), parser, ForkJoinPool.commonPool(), CSVReader.DEFAULT_CHUNK_SIZE);
+        CompletableFuture<FileLoad> future = CompletableFuture.supplyAsync(() -> {
+            long start = System.nanoTime();
+            reader.run();
+            FileLoad load = new FileLoad(name, System.nanoTime() - start, reader.getRows());
+            MetricsService.histogram("ingest." + name + ".nanos").record(load.getNanos());
+            MetricsService.counter("ingest." + name + ".rows").add(load.getRows());
+            return load;
+        }, executor);
+        // Cancelling a CompletableFuture does not interrupt a running load, so the reader is stopped as well
+        future.whenComplete((ignored, e) -> {
+            if (future.isCancelled()) {
+                reader.cancel();
             }
         });
+        return future;
+    }
+
+    /**
+     * The load time and number of rows of a single CSV file.
+     */
+    public static class FileLoad {
+        private final String name;
+        private final long nanos;
+        private final long rows;
+
+        public FileLoad(String name, long nanos, long rows) {
+            this.name = name;
+            this.nanos = nanos;
+            this.rows = rows;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getNanos() {
+            return nanos;
+        }
+
+        public long getRows() {
+            return rows;
+        }
+
+        @Override
+        public String toString() {
+            return "FileLoad{" +
+                    "name='" + name + '\'' +
+                    ", millis=" + nanos / 1_000_000.0 +
+                    ", rows=" + rows +
+                    '}';
+        }
     }
 }
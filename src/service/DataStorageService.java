@@ -1,27 +1,46 @@
 package service;
 
-import data.Move;
-import data.Palmon;
+import data.LearnsetIndex;
+import data.MoveSpec;
+import data.PalmonSpecies;
+import data.SpeciesIndex;
+import data.TypeChart;
+import data.TypeIndex;
+import data.TypeTable;
 import utils.DataHandling.DataParser;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
 
 /**
  * A service class for storing data in memory.
  * The class is designed to store data in memory and provide access to it.
  */
 public class DataStorageService {
-    private static ArrayList<Palmon> palmons = new ArrayList<>();
+    private static ArrayList<PalmonSpecies> palmons = new ArrayList<>();
     private static ArrayList<Integer> palmonIds = new ArrayList<>();
     private static ArrayList<String> palmonTypes = new ArrayList<>();
-    private static CopyOnWriteArrayList<Move> moves = new CopyOnWriteArrayList<>();
-    private static Map<Integer, Map<Integer, Integer>> palmonMoves = new ConcurrentHashMap<>();
-    private static HashMap<String, HashMap<String, Float>> effectivity = new HashMap<>();
+    private static CopyOnWriteArrayList<MoveSpec> moves = new CopyOnWriteArrayList<>();
+    private static LearnsetIndex learnsets = LearnsetIndex.EMPTY;
+    private static TypeChart typeChart = new TypeChart(0, new float[0]);
+    private static TypeIndex typeIndex = TypeIndex.EMPTY;
+    private static SpeciesIndex speciesIndex = SpeciesIndex.EMPTY;
+    private static IdIndex<PalmonSpecies> palmonsById = IdIndex.empty(PalmonSpecies[]::new);
+    private static IdIndex<MoveSpec> movesById = IdIndex.empty(MoveSpec[]::new);
+
+    // Approximate sizes on a 64-bit JVM with compressed references, used to estimate the catalogue footprint
+    private static final int OBJECT_HEADER_BYTES = 12;
+    private static final int ARRAY_HEADER_BYTES = 16;
+    private static final int REFERENCE_BYTES = 4;
+    private static final int PALMON_SPECIES_BYTES = OBJECT_HEADER_BYTES + 10 * Integer.BYTES + 3 * REFERENCE_BYTES;
+    private static final int MOVE_SPEC_BYTES = OBJECT_HEADER_BYTES + 5 * Integer.BYTES + REFERENCE_BYTES;
+    private static final int HASH_ENTRY_BYTES = 2 * OBJECT_HEADER_BYTES + 5 * REFERENCE_BYTES + Integer.BYTES;
 
     private static final DataParser.PalmonParser palmonParser = new DataParser.PalmonParser();
     private static final DataParser.MoveParser moveParser = new DataParser.MoveParser();
@@ -30,22 +49,42 @@ public class DataStorageService {
 
     /**
      * Retrieves a Palmon by its ID.
-     * Time Complexity: O(n)
+     * Time Complexity: O(1)
      * @param palmonId the ID of the Palmon to retrieve
      * @return an Optional containing the Palmon if found, or empty if not found
      */
-    public static Optional<Palmon> getPalmonById(int palmonId) {
-        return palmons.stream().filter(palmon -> palmon.getId() == palmonId).findFirst();
+    public static Optional<PalmonSpecies> getPalmonById(int palmonId) {
+        return Optional.ofNullable(getPalmonOrNull(palmonId));
+    }
+
+    /**
+     * Retrieves a Palmon by its ID without wrapping it, for lookups in hot paths.
+     * Time Complexity: O(1)
+     * @param palmonId the ID of the Palmon to retrieve
+     * @return the Palmon, or null if not found
+     */
+    public static PalmonSpecies getPalmonOrNull(int palmonId) {
+        return palmonsById.get(palmonId);
     }
 
     /**
      * Retrieves a Move by its ID.
-     * Time Complexity: O(n)
+     * Time Complexity: O(1)
      * @param moveId the ID of the Move to retrieve
      * @return an Optional containing the Move if found, or empty if not found
      */
-    public static Optional<Move> getMoveById(int moveId) {
-        return moves.stream().filter(move -> move.getId() == moveId).findFirst();
+    public static Optional<MoveSpec> getMoveById(int moveId) {
+        return Optional.ofNullable(getMoveOrNull(moveId));
+    }
+
+    /**
+     * Retrieves a Move by its ID without wrapping it, for lookups in hot paths.
+     * Time Complexity: O(1)
+     * @param moveId the ID of the Move to retrieve
+     * @return the Move, or null if not found
+     */
+    public static MoveSpec getMoveOrNull(int moveId) {
+        return movesById.get(moveId);
     }
 
     /**
@@ -53,7 +92,7 @@ public class DataStorageService {
      * Time Complexity: O(1)
      * @return a list of all Palmobs
      */
-    public static ArrayList<Palmon> getPalmons() {
+    public static ArrayList<PalmonSpecies> getPalmons() {
         return palmons;
     }
 
@@ -75,31 +114,49 @@ public class DataStorageService {
         return palmonTypes;
     }
 
+    /**
+     * Retrieves the index of Palmons by type.
+     * Time Complexity: O(1)
+     * @return the sets of Palmon ordinals per type ordinal
+     */
+    public static TypeIndex getTypeIndex() {
+        return typeIndex;
+    }
+
+    /**
+     * Retrieves the statistics and sort orders of the Palmons.
+     * Time Complexity: O(1)
+     * @return the index of Palmons by every sortable key
+     */
+    public static SpeciesIndex getSpeciesIndex() {
+        return speciesIndex;
+    }
+
     /**
      * Retrieves all Moves.
      * Time Complexity: O(1)
      * @return a list of all Moves
      */
-    public static CopyOnWriteArrayList<Move> getMoves() {
+    public static CopyOnWriteArrayList<MoveSpec> getMoves() {
         return moves;
     }
 
     /**
      * Retrieves the Palmon-Move associations.
      * Time Complexity: O(1)
-     * @return a map of Palmon ID to their moves
+     * @return the learnsets of all Palmons, in rows by Palmon ordinal
      */
-    public static Map<Integer, Map<Integer, Integer>> getPalmonMoves() {
-        return palmonMoves;
+    public static LearnsetIndex getLearnsets() {
+        return learnsets;
     }
 
     /**
      * Retrieves the effectivity multipliers.
      * Time Complexity: O(1)
-     * @return a map of effectivity multipliers
+     * @return the chart of effectivity multipliers, indexed by type ordinals
      */
-    public static HashMap<String, HashMap<String, Float>> getEffectivity() {
-        return effectivity;
+    public static TypeChart getTypeChart() {
+        return typeChart;
     }
 
     /**
@@ -108,9 +165,41 @@ public class DataStorageService {
      * @param attackingType the type of the attacking Palmon
      * @param defendingType the type of the defending Palmon
      * @return the effectivity multiplier
+     * @throws IllegalArgumentException if a type is unknown
      */
     public static float getEffectivityMultiplier(String attackingType, String defendingType) {
-        return effectivity.get(attackingType).get(defendingType);
+        return getEffectivityMultiplier(typeOrdinalOf(attackingType), typeOrdinalOf(defendingType));
+    }
+
+    private static int typeOrdinalOf(String type) {
+        int ordinal = TypeTable.ordinalOf(type);
+        if (ordinal < 0) {
+            throw new IllegalArgumentException("Unknown type: " + type);
+        }
+        return ordinal;
+    }
+
+    /**
+     * Returns an effectivity multiplier for the given attacking and defending type ordinals.
+     * Time Complexity: O(1)
+     * @param attackingType the ordinal of the type of the attacking Palmon
+     * @param defendingType the ordinal of the type of the defending Palmon
+     * @return the effectivity multiplier
+     */
+    public static float getEffectivityMultiplier(int attackingType, int defendingType) {
+        return typeChart.multiplier(attackingType, defendingType);
+    }
+
+    /**
+     * Returns an effectivity multiplier for a move type against a defender with two types.
+     * Time Complexity: O(1)
+     * @param moveType the ordinal of the type of the move
+     * @param primaryType the ordinal of the primary type of the defending Palmon
+     * @param secondaryType the ordinal of the secondary type of the defending Palmon
+     * @return the effectivity multiplier
+     */
+    public static float getEffectivityMultiplier(int moveType, int primaryType, int secondaryType) {
+        return typeChart.multiplier(moveType, primaryType, secondaryType);
     }
     
     /**
@@ -134,73 +223,195 @@ public class DataStorageService {
      * Time Complexity: O(n)
      */
     public static void assignData() {
-        palmons = palmonParser.getData();
-        moves = moveParser.getData();
-        palmonMoves = palmonMoveParser.getData();
-        effectivity = effectivityParser.getData();
+        ArrayList<PalmonSpecies> parsedPalmons = palmonParser.getData();
+        CopyOnWriteArrayList<MoveSpec> parsedMoves = moveParser.getData();
+        assignData(parsedPalmons, parsedMoves, palmonMoveParser.getData().build(parsedPalmons, parsedMoves),
+                effectivityParser.getData());
+    }
+
+    /**
+     * Assigns already assembled data, for example from a catalogue snapshot, to the respective data structures.
+     * Time Complexity: O(n)
+     * @param palmons the Palmons
+     * @param moves the Moves
+     * @param learnsets the learnsets, with one row per Palmon in the order of the Palmon list
+     * @param typeChart the effectivity multipliers, indexed by type ordinals
+     * @throws IllegalArgumentException if the learnsets do not match the Palmons, or an ID is negative or duplicate
+     */
+    public static void assignData(ArrayList<PalmonSpecies> palmons, CopyOnWriteArrayList<MoveSpec> moves,
+                                  LearnsetIndex learnsets, TypeChart typeChart) {
+        if (learnsets.getSpeciesCount() != palmons.size()) {
+            throw new IllegalArgumentException("Expected learnsets for " + palmons.size() + " Palmons");
+        }
+        // Built first, so an invalid catalogue leaves the current one in place
+        IdIndex<PalmonSpecies> palmonIndex = IdIndex.build(palmons, PalmonSpecies::getId, PalmonSpecies[]::new,
+                "Palmon");
+        IdIndex<MoveSpec> moveIndex = IdIndex.build(moves, MoveSpec::getId, MoveSpec[]::new, "Move");
+        DataStorageService.palmons = palmons;
+        DataStorageService.moves = moves;
+        DataStorageService.learnsets = learnsets;
+        DataStorageService.typeChart = typeChart;
+        palmonsById = palmonIndex;
+        movesById = moveIndex;
 
         extractPalmonIds();
         extractPalmonTypes();
         associateMovesWithPalmons();
+        speciesIndex = SpeciesIndex.build(palmons);
+        MetricsService.gauge("catalogue.bytes", DataStorageService::estimateFootprintBytes);
+    }
+
+    /**
+     * Estimates the memory the catalogue takes: the Palmons and Moves with their names, the learnsets, the
+     * ID indexes and the type chart. Cached fight moves, the type index and the sort orders are not included.
+     *
+     * @return the estimated number of bytes
+     * Time Complexity: O(n + m) where n is the number of Palmons and m the number of Moves
+     */
+    public static long estimateFootprintBytes() {
+        long bytes = 0;
+        for (PalmonSpecies palmon : palmons) {
+            bytes += PALMON_SPECIES_BYTES + stringBytes(palmon.getName());
+        }
+        for (MoveSpec move : moves) {
+            bytes += MOVE_SPEC_BYTES + stringBytes(move.getName());
+        }
+        bytes += arrayBytes(learnsets.getSpeciesCount() + 1, Integer.BYTES)
+                + arrayBytes(learnsets.getEntryCount(), Integer.BYTES)
+                + arrayBytes(learnsets.getEntryCount(), Short.BYTES);
+        bytes += palmonsById.estimateBytes() + movesById.estimateBytes();
+        bytes += arrayBytes(typeChart.getTypeCount() * typeChart.getTypeCount(), Float.BYTES);
+        return bytes;
+    }
+
+    private static long arrayBytes(long length, int elementBytes) {
+        return ARRAY_HEADER_BYTES + length * elementBytes;
+    }
+
+    private static long stringBytes(String string) {
+        // The String object and its byte array, assuming Latin-1 names
+        return OBJECT_HEADER_BYTES + 2 * Integer.BYTES + REFERENCE_BYTES + arrayBytes(string.length(), 1);
     }
 
     /**
-     * Extracts the IDs of all Palmobs and stores them in a list.
+     * Extracts the IDs of all Palmobs and stores them in a new list, replacing the list of an earlier catalogue.
      * The list is used for quick access to Palmobs by ID.
      * Time Complexity: O(n)
      */
     private static void extractPalmonIds() {
-        for (Palmon palmon : palmons) {
-            palmonIds.add(palmon.getId());
+        ArrayList<Integer> ids = new ArrayList<>(palmons.size());
+        for (PalmonSpecies palmon : palmons) {
+            ids.add(palmon.getId());
         }
+        palmonIds = ids;
     }
 
     /**
-     * Extracts the types of all Palmobs and stores them in a list. Doesn't store duplicates.
-     * Time Complexity: O(n)
+     * Builds the index of Palmons by type and extracts the types that at least one Palmon has, in ordinal order.
+     * Time Complexity: O(n + t * n / 64) where n is the number of Palmons and t the number of types
      */
     private static void extractPalmonTypes() {
-        for (Palmon palmon : palmons) {
-            if (!palmonTypes.contains(palmon.getPrimaryType())) {
-                palmonTypes.add(palmon.getPrimaryType());
-            }
-            if (!palmonTypes.contains(palmon.getSecondaryType())) {
-                palmonTypes.add(palmon.getSecondaryType());
+        typeIndex = TypeIndex.build(palmons, TypeTable.size());
+        ArrayList<String> types = new ArrayList<>();
+        for (int type = 0; type < typeIndex.getTypeCount(); type++) {
+            if (!typeIndex.getSpecies(type).isEmpty()) {
+                types.add(TypeTable.nameOf(type));
             }
         }
+        palmonTypes = types;
     }
 
     /**
-     * Associates moves with Palmobs based on the data from the Palmon-Move parser.
-     * Time Complexity: O(n + m) where n is the number of Palmobs and m is the number of Moves
+     * Associates moves with Palmobs by linking every Palmon to its ordinal and its row of the learnsets.
+     * Time Complexity: O(n)
      */
     private static void associateMovesWithPalmons() {
-        Map<Integer, Palmon> palmonMap = new HashMap<>();
-        for (Palmon palmon : palmons) {
-            palmonMap.put(palmon.getId(), palmon);
+        for (int ordinal = 0; ordinal < palmons.size(); ordinal++) {
+            palmons.get(ordinal).link(ordinal, learnsets.learnset(ordinal));
         }
+    }
+
+    /**
+     * Maps IDs to Palmons or Moves. The IDs in the CSV files are sparse but small, so they are used as array
+     * indices, which keeps lookups constant without hashing or boxing. If the largest ID is far above the
+     * number of entries, a map is used instead, so a single large ID cannot blow up the array.
+     */
+    private static class IdIndex<T> {
+        private static final int MAX_SPARSENESS = 4;
+        private static final int MIN_ARRAY_LENGTH = 1024;
+
+        private final T[] dense;
+        private final Map<Integer, T> sparse;
 
-        Map<Integer, Move> moveMap = new HashMap<>();
-        for (Move move : moves) {
-            moveMap.put(move.getId(), move);
+        private IdIndex(T[] dense, Map<Integer, T> sparse) {
+            this.dense = dense;
+            this.sparse = sparse;
         }
 
-        for (Map.Entry<Integer, Map<Integer, Integer>> palmonEntry : palmonMoves.entrySet()) {
-            int palmonId = palmonEntry.getKey();
-            Palmon palmon = palmonMap.get(palmonId);
+        static <T> IdIndex<T> empty(IntFunction<T[]> newArray) {
+            return new IdIndex<>(newArray.apply(0), Map.of());
+        }
 
-            if (palmon != null) {
-                Map<Integer, Integer> movesForPalmon = palmonEntry.getValue();
-                for (Map.Entry<Integer, Integer> moveEntry : movesForPalmon.entrySet()) {
-                    int moveId = moveEntry.getKey();
-                    int learnedOnLevel = moveEntry.getValue();
-                    Move move = moveMap.get(moveId);
+        /**
+         * Builds the index of the given entries.
+         *
+         * @param entries  the entries to index
+         * @param idOf     gets the ID of an entry
+         * @param newArray creates an array of entries
+         * @param kind     the kind of the entries, for error messages
+         * @return the index
+         * @throws IllegalArgumentException if an ID is negative or appears twice
+         * Time Complexity: O(n + k) where n is the number of entries and k the largest ID if it is small enough
+         * for an array, otherwise O(n)
+         */
+        static <T> IdIndex<T> build(List<T> entries, ToIntFunction<T> idOf, IntFunction<T[]> newArray, String kind) {
+            int maxId = -1;
+            for (T entry : entries) {
+                int id = idOf.applyAsInt(entry);
+                if (id < 0) {
+                    throw new IllegalArgumentException(kind + " ID " + id + " is negative");
+                }
+                maxId = Math.max(maxId, id);
+            }
 
-                    if (move != null) {
-                        palmon.addMove(moveId, learnedOnLevel);
+            if (maxId < (long) MAX_SPARSENESS * entries.size() + MIN_ARRAY_LENGTH) {
+                T[] dense = newArray.apply(maxId + 1);
+                for (T entry : entries) {
+                    int id = idOf.applyAsInt(entry);
+                    if (dense[id] != null) {
+                        throw new IllegalArgumentException("Duplicate " + kind + " ID " + id);
                     }
+                    dense[id] = entry;
                 }
+                return new IdIndex<>(dense, Map.of());
             }
+
+            Map<Integer, T> sparse = new HashMap<>(entries.size() * 2);
+            for (T entry : entries) {
+                int id = idOf.applyAsInt(entry);
+                if (sparse.putIfAbsent(id, entry) != null) {
+                    throw new IllegalArgumentException("Duplicate " + kind + " ID " + id);
+                }
+            }
+            return new IdIndex<>(newArray.apply(0), sparse);
+        }
+
+        /**
+         * Gets the entry of an ID.
+         *
+         * @param id the ID
+         * @return the entry, or null if no entry has the ID
+         * Time Complexity: O(1)
+         */
+        T get(int id) {
+            if (id >= 0 && id < dense.length) {
+                return dense[id];
+            }
+            return sparse.get(id);
+        }
+
+        long estimateBytes() {
+            return arrayBytes(dense.length, REFERENCE_BYTES) + (long) sparse.size() * HASH_ENTRY_BYTES;
         }
     }
 }
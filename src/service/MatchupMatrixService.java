@@ -0,0 +1,416 @@
+package service;
+
+import data.BattleEngine;
+import data.MatchupMatrix;
+import data.MoveSelector;
+import data.MoveSpec;
+import data.Palmon;
+import data.PalmonSpecies;
+import data.Team;
+import data.TypeChart;
+import data.TypeTable;
+
+import java.io.IOException;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * A service class for computing the MatchupMatrix of all species and storing it in a memory-mapped file.
+ * Every pair of species is simulated with single-Palmon teams and random moves. The pairs are traversed in
+ * square tiles on a ForkJoinPool, so the teams and learnsets of a tile stay in the cache while it is computed.
+ * Every pair gets its own random seed derived from the job seed and the species IDs, so the win rate of a pair
+ * does not depend on the number of threads or on which other pairs are computed.
+ * The file stores a fingerprint of every species and of the type chart; updating an existing file only
+ * recomputes the rows and columns of species whose stats, types or fight moves changed.
+ */
+public class MatchupMatrixService {
+    static final int TILE_SIZE = 32;
+
+    private static final int MAGIC = 0x504C4D58; // "PLMX"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 7 * Integer.BYTES + 2 * Long.BYTES;
+    private static final int COMPLETE_OFFSET = 2 * Integer.BYTES;
+    // A mapped buffer is indexed by int, so the whole file has to fit in one
+    private static final long MAX_FILE_BYTES = Integer.MAX_VALUE;
+
+    /**
+     * Opens a matrix file without recomputing it. The catalogue does not need to be loaded.
+     *
+     * @param path the path of the matrix file
+     * @return the matrix, backed by the mapped file
+     * @throws IOException if the file cannot be read or is not a complete matrix file
+     * Time Complexity: O(1)
+     */
+    public static MatchupMatrix open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            Header header = Header.read(buffer);
+            if (header == null || !header.complete || channel.size() != fileSize(header.speciesCount)) {
+                throw new IOException(path + " is not a complete matchup matrix");
+            }
+            return matrix(buffer, header);
+        }
+    }
+
+    /**
+     * Computes the matrix of the catalogue in the DataStorageService on the common pool and stores it in a file.
+     * If the file holds a complete matrix for the same levels, simulations, seed and type chart, only the rows and
+     * columns of changed species are recomputed.
+     *
+     * @param path          the path of the matrix file
+     * @param playerLevel   the level of the species on the player side
+     * @param opponentLevel the level of the species on the opponent side
+     * @param simulations   the number of battles per pair
+     * @param seed          the seed that determines all random decisions
+     * @return the matrix, backed by the mapped file
+     * @throws IOException if the file cannot be written
+     * Time Complexity: O(c * n * s * t / p) where c is the number of changed species (n if all are recomputed),
+     * n the number of species, s the simulations per pair, t the turns per battle and p the parallelism
+     */
+    public static MatchupMatrix update(Path path, int playerLevel, int opponentLevel, int simulations, long seed)
+            throws IOException {
+        return update(path, playerLevel, opponentLevel, simulations, seed, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Computes the matrix of the catalogue in the DataStorageService on the given pool and stores it in a file.
+     *
+     * @param path          the path of the matrix file
+     * @param playerLevel   the level of the species on the player side
+     * @param opponentLevel the level of the species on the opponent side
+     * @param simulations   the number of battles per pair
+     * @param seed          the seed that determines all random decisions
+     * @param pool          the pool to run the simulations on
+     * @return the matrix, backed by the mapped file
+     * @throws IOException if the file cannot be written
+     * @throws IllegalArgumentException if the matrix of the catalogue is too large to be mapped
+     * Time Complexity: O(c * n * s * t / p) where c is the number of changed species (n if all are recomputed),
+     * n the number of species, s the simulations per pair, t the turns per battle and p the parallelism
+     */
+    public static MatchupMatrix update(Path path, int playerLevel, int opponentLevel, int simulations, long seed,
+                                       ForkJoinPool pool) throws IOException {
+        if (simulations <= 0) {
+            throw new IllegalArgumentException("At least one simulation per pair is required");
+        }
+        List<PalmonSpecies> palmons = DataStorageService.getPalmons();
+        int speciesCount = palmons.size();
+        if (fileSize(speciesCount) > MAX_FILE_BYTES) {
+            throw new IllegalArgumentException("The matchup matrix of " + speciesCount + " species needs "
+                    + fileSize(speciesCount) + " bytes, more than the " + MAX_FILE_BYTES
+                    + " bytes a mapped file can hold");
+        }
+        Header header = new Header(true, speciesCount, playerLevel, opponentLevel, simulations, seed, chartFingerprint());
+        int[] fingerprints = new int[speciesCount];
+        for (int ordinal = 0; ordinal < speciesCount; ordinal++) {
+            fingerprints[ordinal] = speciesFingerprint(palmons.get(ordinal), playerLevel, opponentLevel);
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            boolean reusable = false;
+            if (channel.size() == fileSize(speciesCount)) {
+                Header stored = Header.read(channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES));
+                reusable = header.matches(stored);
+            }
+            if (!reusable) {
+                channel.truncate(0);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileSize(speciesCount));
+            IntBuffer storedFingerprints = buffer.slice(HEADER_BYTES, speciesCount * Integer.BYTES).asIntBuffer();
+
+            boolean[] changed = new boolean[speciesCount];
+            for (int ordinal = 0; ordinal < speciesCount; ordinal++) {
+                changed[ordinal] = !reusable || storedFingerprints.get(ordinal) != fingerprints[ordinal];
+            }
+
+            // Mark the file incomplete while values are overwritten
+            buffer.putInt(COMPLETE_OFFSET, 0);
+            buffer.force();
+
+            Job job = new Job(palmons, playerLevel, opponentLevel, simulations, seed,
+                    buffer.slice(valuesOffset(speciesCount), valuesBytes(speciesCount)).asFloatBuffer());
+            // Changed rows over all columns, unchanged rows over the changed columns, so every stale pair
+            // is simulated once
+            List<int[]> changedRuns = runs(changed, true);
+            List<int[]> unchangedRuns = runs(changed, false);
+            List<TileTask> tasks = new ArrayList<>();
+            for (int[] rows : changedRuns) {
+                tasks.add(new TileTask(job, rows[0], rows[1], 0, speciesCount));
+            }
+            for (int[] rows : unchangedRuns) {
+                for (int[] columns : changedRuns) {
+                    tasks.add(new TileTask(job, rows[0], rows[1], columns[0], columns[1]));
+                }
+            }
+            pool.invoke(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    invokeAll(tasks);
+                }
+            });
+
+            storedFingerprints.put(0, fingerprints);
+            header.write(buffer);
+            buffer.force();
+            return matrix(buffer, header);
+        }
+    }
+
+    /**
+     * Finds the ranges of consecutive ordinals whose flag has the given value.
+     *
+     * @param flags the flag of every ordinal
+     * @param value the value to find
+     * @return the first ordinal and the ordinal after the last one of every range, in ascending order
+     * Time Complexity: O(n) where n is the number of ordinals
+     */
+    private static List<int[]> runs(boolean[] flags, boolean value) {
+        List<int[]> runs = new ArrayList<>();
+        int ordinal = 0;
+        while (ordinal < flags.length) {
+            if (flags[ordinal] != value) {
+                ordinal++;
+                continue;
+            }
+            int start = ordinal;
+            while (ordinal < flags.length && flags[ordinal] == value) {
+                ordinal++;
+            }
+            runs.add(new int[]{start, ordinal});
+        }
+        return runs;
+    }
+
+    private static MatchupMatrix matrix(MappedByteBuffer buffer, Header header) {
+        int speciesCount = header.speciesCount;
+        FloatBuffer winRates = buffer.slice(valuesOffset(speciesCount), valuesBytes(speciesCount)).asFloatBuffer();
+        return new MatchupMatrix(speciesCount, header.playerLevel, header.opponentLevel, header.simulations, winRates);
+    }
+
+    // The int sizes are only taken once the file size is known to fit in a mapped buffer
+    private static int valuesOffset(int speciesCount) {
+        return Math.toIntExact(HEADER_BYTES + (long) speciesCount * Integer.BYTES);
+    }
+
+    private static int valuesBytes(int speciesCount) {
+        return Math.toIntExact((long) speciesCount * speciesCount * Float.BYTES);
+    }
+
+    private static long fileSize(int speciesCount) {
+        return HEADER_BYTES + (long) speciesCount * Integer.BYTES + (long) speciesCount * speciesCount * Float.BYTES;
+    }
+
+    /**
+     * Computes a fingerprint of everything about a species that affects its battles on the given levels.
+     * Type names are used instead of ordinals, because ordinals differ between runs.
+     *
+     * @return the fingerprint
+     * Time Complexity: O(1)
+     */
+    static int speciesFingerprint(PalmonSpecies species, int playerLevel, int opponentLevel) {
+        int hash = species.getId();
+        hash = 31 * hash + species.getHp();
+        hash = 31 * hash + species.getAttack();
+        hash = 31 * hash + species.getDefense();
+        hash = 31 * hash + species.getSpeed();
+        hash = 31 * hash + species.getPrimaryType().hashCode();
+        hash = 31 * hash + species.getSecondaryType().hashCode();
+        for (int level : new int[]{playerLevel, opponentLevel}) {
+            for (MoveSpec move : species.getFightMoves(level)) {
+                hash = 31 * hash + move.getId();
+                hash = 31 * hash + move.getDamage();
+                hash = 31 * hash + move.getMaxUsages();
+                hash = 31 * hash + move.getAccuracy();
+                hash = 31 * hash + move.getType().hashCode();
+            }
+            hash = 31 * hash + level;
+        }
+        return hash;
+    }
+
+    /**
+     * Computes a fingerprint of the type chart that does not depend on the order of the type ordinals.
+     *
+     * @return the fingerprint
+     * Time Complexity: O(t^2) where t is the number of types
+     */
+    static long chartFingerprint() {
+        TypeChart typeChart = DataStorageService.getTypeChart();
+        long sum = 0;
+        for (int attacking = 0; attacking < typeChart.getTypeCount(); attacking++) {
+            for (int defending = 0; defending < typeChart.getTypeCount(); defending++) {
+                long pair = 31L * TypeTable.nameOf(attacking).hashCode() + TypeTable.nameOf(defending).hashCode();
+                sum += BattleSimulator.blockSeed(pair, Float.floatToIntBits(typeChart.multiplier(attacking, defending)));
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * The parameters of a matrix file.
+     */
+    private static class Header {
+        final boolean complete;
+        final int speciesCount;
+        final int playerLevel;
+        final int opponentLevel;
+        final int simulations;
+        final long seed;
+        final long chartFingerprint;
+
+        Header(boolean complete, int speciesCount, int playerLevel, int opponentLevel, int simulations, long seed,
+               long chartFingerprint) {
+            this.complete = complete;
+            this.speciesCount = speciesCount;
+            this.playerLevel = playerLevel;
+            this.opponentLevel = opponentLevel;
+            this.simulations = simulations;
+            this.seed = seed;
+            this.chartFingerprint = chartFingerprint;
+        }
+
+        /**
+         * Reads the header at the start of a buffer.
+         *
+         * @return the header, or null if the buffer does not start with a header of this version
+         */
+        static Header read(MappedByteBuffer buffer) {
+            if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                return null;
+            }
+            return new Header(buffer.getInt(COMPLETE_OFFSET) == 1, buffer.getInt(12), buffer.getInt(16),
+                    buffer.getInt(20), buffer.getInt(24), buffer.getLong(28), buffer.getLong(36));
+        }
+
+        void write(MappedByteBuffer buffer) {
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, VERSION);
+            buffer.putInt(12, speciesCount);
+            buffer.putInt(16, playerLevel);
+            buffer.putInt(20, opponentLevel);
+            buffer.putInt(24, simulations);
+            buffer.putLong(28, seed);
+            buffer.putLong(36, chartFingerprint);
+            buffer.force();
+            buffer.putInt(COMPLETE_OFFSET, complete ? 1 : 0);
+        }
+
+        /**
+         * Checks if a stored header describes a complete matrix with the same parameters.
+         */
+        boolean matches(Header stored) {
+            return stored != null && stored.complete && stored.speciesCount == speciesCount
+                    && stored.playerLevel == playerLevel && stored.opponentLevel == opponentLevel
+                    && stored.simulations == simulations && stored.seed == seed
+                    && stored.chartFingerprint == chartFingerprint;
+        }
+    }
+
+    /**
+     * The teams and parameters shared by all tiles of one computation.
+     */
+    private static class Job {
+        final Team[] playerTeams;
+        final Team[] opponentTeams;
+        final int[] speciesIds;
+        final int speciesCount;
+        final int simulations;
+        final long seed;
+        final FloatBuffer winRates;
+
+        Job(List<PalmonSpecies> palmons, int playerLevel, int opponentLevel, int simulations, long seed,
+            FloatBuffer winRates) {
+            this.speciesCount = palmons.size();
+            this.playerTeams = new Team[speciesCount];
+            this.opponentTeams = new Team[speciesCount];
+            this.speciesIds = new int[speciesCount];
+            for (int ordinal = 0; ordinal < speciesCount; ordinal++) {
+                PalmonSpecies species = palmons.get(ordinal);
+                playerTeams[ordinal] = singlePalmonTeam(species, playerLevel);
+                opponentTeams[ordinal] = singlePalmonTeam(species, opponentLevel);
+                speciesIds[ordinal] = species.getId();
+            }
+            this.simulations = simulations;
+            this.seed = seed;
+            this.winRates = winRates;
+        }
+
+        private static Team singlePalmonTeam(PalmonSpecies species, int level) {
+            Palmon palmon = new Palmon(species);
+            palmon.setLevel(level);
+            palmon.setFightMoves();
+            Team team = new Team();
+            team.addPalmon(palmon);
+            return team;
+        }
+
+        /**
+         * Simulates every pair of a tile and stores the win rates.
+         * Time Complexity: O(r * c * s * t) where r and c are the rows and columns of the tile, s the simulations
+         * per pair and t the turns per battle
+         */
+        void computeTile(int rowFrom, int rowTo, int columnFrom, int columnTo) {
+            for (int row = rowFrom; row < rowTo; row++) {
+                for (int column = columnFrom; column < columnTo; column++) {
+                    long pair = (long) speciesIds[row] << 32 | speciesIds[column];
+                    BattleEngine engine = new BattleEngine(MoveSelector.RANDOM, MoveSelector.RANDOM,
+                            new SplittableRandom(BattleSimulator.blockSeed(seed, pair)));
+                    int wins = 0;
+                    for (int i = 0; i < simulations; i++) {
+                        if (engine.run(playerTeams[row], opponentTeams[column]).getWinner() == BattleEngine.PLAYER) {
+                            wins++;
+                        }
+                    }
+                    winRates.put(row * speciesCount + column, (float) wins / simulations);
+                }
+            }
+        }
+    }
+
+    /**
+     * Splits a rectangle of the matrix along its longer side until it fits into a tile.
+     */
+    // ForkJoinTask is Serializable, but the tasks are never serialized
+    @SuppressWarnings("serial")
+    private static class TileTask extends RecursiveAction {
+        private final Job job;
+        private final int rowFrom;
+        private final int rowTo;
+        private final int columnFrom;
+        private final int columnTo;
+
+        TileTask(Job job, int rowFrom, int rowTo, int columnFrom, int columnTo) {
+            this.job = job;
+            this.rowFrom = rowFrom;
+            this.rowTo = rowTo;
+            this.columnFrom = columnFrom;
+            this.columnTo = columnTo;
+        }
+
+        @Override
+        protected void compute() {
+            int rows = rowTo - rowFrom;
+            int columns = columnTo - columnFrom;
+            if (rows <= TILE_SIZE && columns <= TILE_SIZE) {
+                job.computeTile(rowFrom, rowTo, columnFrom, columnTo);
+            } else if (rows >= columns) {
+                int middle = rowFrom + rows / 2;
+                invokeAll(new TileTask(job, rowFrom, middle, columnFrom, columnTo),
+                        new TileTask(job, middle, rowTo, columnFrom, columnTo));
+            } else {
+                int middle = columnFrom + columns / 2;
+                invokeAll(new TileTask(job, rowFrom, rowTo, columnFrom, middle),
+                        new TileTask(job, rowFrom, rowTo, middle, columnTo));
+            }
+        }
+    }
+}
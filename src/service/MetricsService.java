@@ -0,0 +1,227 @@
+package service;
+
+import utils.ConsoleHelpers.ConsoleOutput;
+import utils.ConsoleHelpers.TablePrinter;
+import utils.LocaleManager;
+import utils.Metrics.Counter;
+import utils.Metrics.Histogram;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * A service class that holds the metrics of the running game: counters, histograms and gauges by name.
+ * Counters and histograms are looked up once and then recorded into without locking, so they can be used on
+ * hot paths such as the BattleEngine. Gauges are read when the metrics are shown.
+ * The metrics are shown with the /stats console command and can be dumped periodically as JSON.
+ * <p>
+ * Names are dot-separated and end with the unit of the values, for example "battle.decision.opponent.nanos".
+ */
+public class MetricsService {
+    public static final Path DUMP_PATH = Path.of("metrics.json");
+    public static final Duration DEFAULT_DUMP_INTERVAL = Duration.ofSeconds(10);
+
+    private static final long START_NANOS = System.nanoTime();
+    private static final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private static final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+    private static final Map<String, LongSupplier> gauges = new ConcurrentHashMap<>();
+    private static ScheduledExecutorService dumper;
+    private static Thread finalDump;
+
+    /**
+     * Gets the counter of the given name, creating it on first use.
+     *
+     * @param name the name of the counter
+     * @return the counter
+     * Time Complexity: O(1)
+     */
+    public static Counter counter(String name) {
+        return counters.computeIfAbsent(name, ignored -> new Counter());
+    }
+
+    /**
+     * Gets the histogram of the given name, creating it on first use.
+     *
+     * @param name the name of the histogram
+     * @return the histogram
+     * Time Complexity: O(1)
+     */
+    public static Histogram histogram(String name) {
+        return histograms.computeIfAbsent(name, ignored -> new Histogram());
+    }
+
+    /**
+     * Registers a gauge, a value that is computed whenever the metrics are shown.
+     * A gauge of the same name is replaced.
+     *
+     * @param name     the name of the gauge
+     * @param supplier computes the current value, must be thread-safe
+     * Time Complexity: O(1)
+     */
+    public static void gauge(String name, LongSupplier supplier) {
+        gauges.put(name, supplier);
+    }
+
+    /**
+     * Prints all metrics as tables: the gauges and counters with their rate since the start, and the histograms
+     * with their percentiles.
+     * Time Complexity: O(m * b) where m is the number of metrics and b the number of buckets of a histogram
+     */
+    public static void printStats() {
+        double seconds = uptimeSeconds();
+
+        TablePrinter values = new TablePrinter(List.of(LocaleManager.getMessage("TABLE_HEADER_METRIC"),
+                LocaleManager.getMessage("TABLE_HEADER_VALUE"), LocaleManager.getMessage("TABLE_HEADER_RATE")));
+        for (Map.Entry<String, LongSupplier> gauge : new TreeMap<>(gauges).entrySet()) {
+            values.addRow(List.of(gauge.getKey(), String.valueOf(gauge.getValue().getAsLong()), ""));
+        }
+        for (Map.Entry<String, Counter> counter : new TreeMap<>(counters).entrySet()) {
+            long count = counter.getValue().get();
+            values.addRow(List.of(counter.getKey(), String.valueOf(count),
+                    String.format(Locale.ROOT, "%.1f/s", count / seconds)));
+        }
+
+        TablePrinter distributions = new TablePrinter(List.of(LocaleManager.getMessage("TABLE_HEADER_METRIC"),
+                LocaleManager.getMessage("TABLE_HEADER_COUNT"), LocaleManager.getMessage("TABLE_HEADER_MEAN"),
+                "p50", "p90", "p99", "Max"));
+        for (Map.Entry<String, Histogram> entry : new TreeMap<>(histograms).entrySet()) {
+            Histogram histogram = entry.getValue();
+            distributions.addRow(List.of(entry.getKey(), String.valueOf(histogram.getCount()),
+                    String.format(Locale.ROOT, "%.1f", histogram.getMean()),
+                    String.valueOf(histogram.getPercentile(50)), String.valueOf(histogram.getPercentile(90)),
+                    String.valueOf(histogram.getPercentile(99)), String.valueOf(histogram.getMax())));
+        }
+        ConsoleOutput.render(out -> {
+            ConsoleOutput.line(out, "");
+            ConsoleOutput.line(out, LocaleManager.getMessage("STATS_TITLE", String.format(Locale.ROOT, "%.1f", seconds)));
+            values.render(out);
+            distributions.render(out);
+        });
+    }
+
+    /**
+     * Renders all metrics as a JSON object with the uptime and one object each for the gauges, counters
+     * and histograms, keyed by metric name.
+     *
+     * @return the JSON text
+     * Time Complexity: O(m * b) where m is the number of metrics and b the number of buckets of a histogram
+     */
+    public static String toJson() {
+        double seconds = uptimeSeconds();
+        StringBuilder json = new StringBuilder(1024);
+        json.append("{\n  \"uptimeSeconds\": ").append(String.format(Locale.ROOT, "%.3f", seconds));
+
+        json.append(",\n  \"gauges\": {");
+        String separator = "\n";
+        for (Map.Entry<String, LongSupplier> gauge : new TreeMap<>(gauges).entrySet()) {
+            json.append(separator).append("    \"").append(gauge.getKey()).append("\": ").append(gauge.getValue().getAsLong());
+            separator = ",\n";
+        }
+        json.append("\n  },\n  \"counters\": {");
+        separator = "\n";
+        for (Map.Entry<String, Counter> counter : new TreeMap<>(counters).entrySet()) {
+            long count = counter.getValue().get();
+            json.append(separator).append("    \"").append(counter.getKey()).append("\": {\"count\": ").append(count)
+                    .append(", \"perSecond\": ").append(String.format(Locale.ROOT, "%.3f", count / seconds)).append('}');
+            separator = ",\n";
+        }
+        json.append("\n  },\n  \"histograms\": {");
+        separator = "\n";
+        for (Map.Entry<String, Histogram> entry : new TreeMap<>(histograms).entrySet()) {
+            Histogram histogram = entry.getValue();
+            json.append(separator).append("    \"").append(entry.getKey()).append("\": {")
+                    .append("\"count\": ").append(histogram.getCount())
+                    .append(", \"mean\": ").append(String.format(Locale.ROOT, "%.3f", histogram.getMean()))
+                    .append(", \"p50\": ").append(histogram.getPercentile(50))
+                    .append(", \"p90\": ").append(histogram.getPercentile(90))
+                    .append(", \"p99\": ").append(histogram.getPercentile(99))
+                    .append(", \"p999\": ").append(histogram.getPercentile(99.9))
+                    .append(", \"max\": ").append(histogram.getMax()).append('}');
+            separator = ",\n";
+        }
+        return json.append("\n  }\n}\n").toString();
+    }
+
+    /**
+     * Writes the metrics as JSON to a file. The file is replaced at once, so readers never see a partial dump.
+     *
+     * @param path the file to write
+     * @throws IOException if the file cannot be written
+     * Time Complexity: O(m * b) where m is the number of metrics and b the number of buckets of a histogram
+     */
+    public static void dump(Path path) throws IOException {
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        Files.writeString(temporary, toJson(), StandardCharsets.UTF_8);
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Starts dumping the metrics to a file in the given interval on a daemon thread, replacing an earlier
+     * periodic dump. A failed dump is reported and retried in the next interval. A final dump is written
+     * when the JVM shuts down, so the file also holds the metrics of the last interval.
+     *
+     * @param path     the file to write
+     * @param interval the time between two dumps
+     * Time Complexity: O(1)
+     */
+    public static synchronized void startDump(Path path, Duration interval) {
+        stopDump();
+        dumper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "metrics-dump");
+            thread.setDaemon(true);
+            return thread;
+        });
+        dumper.scheduleAtFixedRate(() -> tryDump(path), interval.toNanos(), interval.toNanos(),
+                TimeUnit.NANOSECONDS);
+        finalDump = new Thread(() -> tryDump(path), "metrics-final-dump");
+        Runtime.getRuntime().addShutdownHook(finalDump);
+    }
+
+    /**
+     * Stops the periodic dump and the final dump on shutdown, if one is running.
+     * Time Complexity: O(1)
+     */
+    public static synchronized void stopDump() {
+        if (dumper != null) {
+            dumper.shutdownNow();
+            dumper = null;
+        }
+        if (finalDump != null) {
+            try {
+                Runtime.getRuntime().removeShutdownHook(finalDump);
+            } catch (IllegalStateException e) {
+                // The JVM is already shutting down, the final dump runs anyway
+            }
+            finalDump = null;
+        }
+    }
+
+    /**
+     * Writes a dump and reports a failure instead of throwing it. An exception escaping the scheduled task
+     * would cancel all later dumps, so runtime exceptions, for example of a gauge, are caught as well.
+     */
+    private static void tryDump(Path path) {
+        try {
+            dump(path);
+        } catch (IOException | RuntimeException e) {
+            System.out.println("@MetricsService: Could not write " + path + " " + e);
+        }
+    }
+
+    private static double uptimeSeconds() {
+        return Math.max(1e-9, (System.nanoTime() - START_NANOS) / 1e9);
+    }
+}
@@ -0,0 +1,143 @@
+package utils;
+
+import data.SpeciesIndex;
+import data.SpeciesQuery;
+import data.TypeTable;
+import service.DataStorageService;
+import utils.ConsoleHelpers.ConsoleColors;
+import utils.ConsoleHelpers.InputManager;
+import utils.ConsoleHelpers.TableCreator;
+
+import java.util.Locale;
+
+/**
+ * The CatalogueBrowser class lets the user page through the Palmons of the catalogue, sorted and filtered
+ * by stat, type or name. Only the page on screen is laid out, so browsing takes the same memory whatever
+ * the size of the catalogue.
+ * <p>
+ * Commands: Enter or n for the next page, p for the previous one, a number to jump to a page,
+ * sort &lt;key&gt; [desc], type &lt;type&gt;, name &lt;prefix&gt;, &lt;stat&gt; &lt;min&gt;-&lt;max&gt;,
+ * clear to remove the filters and q to quit.
+ */
+public class CatalogueBrowser {
+    public static final int PAGE_SIZE = 20;
+
+    private final SpeciesQuery query = new SpeciesQuery(DataStorageService.getSpeciesIndex(),
+            DataStorageService.getTypeIndex());
+    private int page = 0;
+
+    /**
+     * Lets the user browse the catalogue until they quit.
+     * Time Complexity: O(r) per page where r is the number of Palmons the query walks to reach the end of the page
+     */
+    public static void browse() {
+        new CatalogueBrowser().run();
+    }
+
+    private void run() {
+        while (true) {
+            int count = query.count();
+            int pages = Math.max(1, (count + PAGE_SIZE - 1) / PAGE_SIZE);
+            page = Math.min(page, pages - 1);
+            String sortOrder = SpeciesIndex.KEYS.get(query.getSortKey()) + (query.isDescending() ? " desc" : "");
+            TableCreator.printSpeciesPage(query, page, PAGE_SIZE,
+                    LocaleManager.getMessage("BROWSE_PAGE", page + 1, pages, count, sortOrder));
+
+            String command = InputManager.String("BROWSE_COMMAND_QUESTION");
+            if (command.equalsIgnoreCase("q")) {
+                return;
+            }
+            if (!apply(command, pages)) {
+                System.out.println(ConsoleColors.colorizeAndBold(
+                        LocaleManager.getMessage("BROWSE_COMMAND_INVALID", command, String.join(", ", SpeciesIndex.KEYS)),
+                        "red"));
+            }
+        }
+    }
+
+    /**
+     * Applies a command to the page or the query.
+     *
+     * @param command the command entered by the user
+     * @param pages   the number of pages of the current query
+     * @return true if the command is valid
+     * Time Complexity: O(1)
+     */
+    private boolean apply(String command, int pages) {
+        String[] words = command.trim().split("\\s+", 2);
+        String name = words[0].toLowerCase(Locale.ROOT);
+        String argument = words.length > 1 ? words[1].trim() : "";
+
+        if (name.isEmpty() || name.equals("n")) {
+            page = Math.min(page + 1, pages - 1);
+            return true;
+        }
+        if (name.equals("p")) {
+            page = Math.max(page - 1, 0);
+            return true;
+        }
+        if (name.chars().allMatch(Character::isDigit)) {
+            try {
+                page = Math.max(0, Math.min(Integer.parseInt(name) - 1, pages - 1));
+                return true;
+            } catch (NumberFormatException e) {
+                return false;
+            }
+        }
+
+        switch (name) {
+            case "clear":
+                query.clearFilters();
+                break;
+            case "sort":
+                String[] sort = argument.split("\\s+");
+                int key = SpeciesIndex.keyOf(sort[0]);
+                if (key < 0 || sort.length > 2 || (sort.length == 2 && !sort[1].equalsIgnoreCase("desc"))) {
+                    return false;
+                }
+                query.sortBy(key, sort.length == 2);
+                break;
+            case "type":
+                int type = argument.isEmpty() ? -1 : TypeTable.ordinalOf(argument.toLowerCase(Locale.ROOT));
+                if (!argument.isEmpty() && type <= TypeTable.NONE) {
+                    return false;
+                }
+                query.filterType(type);
+                break;
+            case "name":
+                query.filterName(argument);
+                break;
+            default:
+                if (!filterStat(name, argument)) {
+                    return false;
+                }
+        }
+        page = 0;
+        return true;
+    }
+
+    /**
+     * Applies a stat filter such as "hp 50-100". Either bound of the range may be left out.
+     *
+     * @param keyName the name of the stat
+     * @param range   the range, as min-max
+     * @return true if the filter is valid
+     * Time Complexity: O(1)
+     */
+    private boolean filterStat(String keyName, String range) {
+        int key = SpeciesIndex.keyOf(keyName);
+        int separator = range.indexOf('-');
+        if (key < 0 || key == SpeciesIndex.NAME || separator < 0) {
+            return false;
+        }
+        try {
+            String min = range.substring(0, separator).trim();
+            String max = range.substring(separator + 1).trim();
+            query.filterStat(key, min.isEmpty() ? Integer.MIN_VALUE : Integer.parseInt(min),
+                    max.isEmpty() ? Integer.MAX_VALUE : Integer.parseInt(max));
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package utils.ConsoleHelpers;
+
+import java.util.Scanner;
+
+/**
+ * Reads the lines a user types on the console.
+ */
+public class ConsoleInputSource implements InputSource {
+    private final Scanner scanner = new Scanner(System.in);
+
+    /**
+     * Reads the next line typed by the user, waiting until the user presses Enter.
+     * Time Complexity: O(n) where n is the length of the line
+     *
+     * @return the line without the line break
+     */
+    @Override
+    public String readLine() {
+        return scanner.nextLine();
+    }
+
+    @Override
+    public boolean isInteractive() {
+        return true;
+    }
+}
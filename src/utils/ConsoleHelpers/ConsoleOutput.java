@@ -0,0 +1,89 @@
+package utils.ConsoleHelpers;
+
+import java.io.BufferedOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.Charset;
+import java.util.function.Consumer;
+
+/**
+ * The ConsoleOutput class writes larger blocks of console output, such as tables, at once.
+ * A block is laid out into a reused StringBuilder and then written through a buffered PrintStream without
+ * automatic flushing, which is flushed once per block. This replaces one synchronized console write per
+ * cell or line with a single write per block.
+ */
+public class ConsoleOutput {
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int MAX_RETAINED_CAPACITY = 1 << 20;
+
+    private static StringBuilder buffer = new StringBuilder(BUFFER_SIZE);
+    private static PrintStream target;
+    private static PrintStream stream;
+
+    /**
+     * Lays out a block of output and writes it to the console with a single flush.
+     * Blocks of concurrent callers are written one after the other, never interleaved.
+     *
+     * @param renderer appends the output to the given builder, with line separators
+     * Time Complexity: O(n) where n is the length of the output
+     */
+    public static synchronized void render(Consumer<StringBuilder> renderer) {
+        buffer.setLength(0);
+        renderer.accept(buffer);
+        PrintStream out = stream();
+        out.append(buffer);
+        out.flush();
+        if (buffer.capacity() > MAX_RETAINED_CAPACITY) {
+            buffer = new StringBuilder(BUFFER_SIZE);
+        }
+    }
+
+    /**
+     * Appends a text followed by a line separator, the StringBuilder counterpart of System.out.println.
+     *
+     * @param out  the builder to append to
+     * @param text the text of the line
+     * @return the builder
+     * Time Complexity: O(n) where n is the length of the text
+     */
+    public static StringBuilder line(StringBuilder out, String text) {
+        return out.append(text).append(System.lineSeparator());
+    }
+
+    /**
+     * Appends a character a number of times, used to pad table cells.
+     *
+     * @param out   the builder to append to
+     * @param c     the character to append
+     * @param count the number of times, nothing is appended if it is not positive
+     * @return the builder
+     * Time Complexity: O(count)
+     */
+    public static StringBuilder repeat(StringBuilder out, char c, int count) {
+        for (int i = 0; i < count; i++) {
+            out.append(c);
+        }
+        return out;
+    }
+
+    /**
+     * Gets the buffered stream that writes to the current System.out, creating it again if System.out
+     * was replaced. The text is encoded the same way System.out would encode it.
+     */
+    private static PrintStream stream() {
+        if (target != System.out) {
+            target = System.out;
+            stream = new PrintStream(new BufferedOutputStream(target, BUFFER_SIZE), false, consoleCharset());
+        }
+        return stream;
+    }
+
+    private static Charset consoleCharset() {
+        for (String property : new String[]{"stdout.encoding", "sun.stdout.encoding"}) {
+            String encoding = System.getProperty(property);
+            if (encoding != null && Charset.isSupported(encoding)) {
+                return Charset.forName(encoding);
+            }
+        }
+        return Charset.defaultCharset();
+    }
+}
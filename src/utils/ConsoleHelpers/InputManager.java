@@ -1,15 +1,58 @@
 package utils.ConsoleHelpers;
 
 import java.util.ArrayList;
-import java.util.InputMismatchException;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Scanner;
+import service.MetricsService;
 import utils.LocaleManager;
 
+/**
+ * The InputManager class prompts for answers and reads them from an InputSource, the console by default.
+ * Invalid answers are asked for again in a loop, however many there are.
+ */
 public class InputManager {
-    private static final Scanner scanner = new Scanner(System.in);
+    public static final String STATS_COMMAND = "/stats";
+
+    private static volatile InputSource source = new ConsoleInputSource();
+
+    /**
+     * Sets the source the answers are read from, for example a ScriptInputSource to run a session without a user.
+     * Time Complexity: O(1)
+     *
+     * @param inputSource the source of the answers
+     */
+    public static void setSource(InputSource inputSource) {
+        source = inputSource;
+    }
+
+    public static InputSource getSource() {
+        return source;
+    }
+
+    /**
+     * Reads the next line of input. Console commands are handled here and are not returned as an answer:
+     * /stats prints the metrics of the game and asks for the value again with the prompt of the caller.
+     * Lines that are not typed by a user are echoed, so they appear after their prompt.
+     * Time Complexity: O(1) per line, O(m * b) to print the metrics
+     *
+     * @param promptKey the key of the prompt that asks for the line
+     * @return the line without the line break
+     */
+    private static String readLine(String promptKey) {
+        while (true) {
+            InputSource current = source;
+            String line = current.readLine();
+            if (!current.isInteractive()) {
+                System.out.println(line);
+            }
+            if (!line.trim().equalsIgnoreCase(STATS_COMMAND)) {
+                return line;
+            }
+            MetricsService.printStats();
+            System.out.print(LocaleManager.getMessage(promptKey));
+        }
+    }
 
     /**
      * Prompts the user to select an option from a list of options.
@@ -30,12 +73,12 @@ public class InputManager {
         System.out.println("=".repeat(prompt.length()));
 
         System.out.print(LocaleManager.getMessage("INPUT_SELECT_ENTER"));
-        String selection = scanner.nextLine().trim();
+        String selection = readLine("INPUT_SELECT_ENTER").trim();
 
         while (!options.containsKey(selection)) {
             System.out.print(ConsoleColors.colorizeAndBold(
                     LocaleManager.getMessage("INPUT_SELECT_INVALID", options.keySet().toString()), "red"));
-            selection = scanner.nextLine().trim();
+            selection = readLine("INPUT_SELECT_ENTER").trim();
         }
 
         return selection;
@@ -60,23 +103,12 @@ public class InputManager {
         System.out.println("=".repeat(prompt.length()));
 
         System.out.print(LocaleManager.getMessage("INPUT_SELECT_ENTER"));
-        int selection = 0;
+        Integer selection = parseInteger(readLine("INPUT_SELECT_ENTER"));
 
-        try {
-            selection = scanner.nextInt();
-            scanner.nextLine();
-        } catch (InputMismatchException e) {
-            System.out.println(ConsoleColors.colorizeAndBold(
-                    LocaleManager.getMessage("INPUT_SELECT_INVALID", sortedOptions.keySet().toString()), "red"));
-            scanner.nextLine(); // Clear the buffer
-            return SelectWithIndex(promptKey, options);
-        }
-
-        while (!sortedOptions.containsKey(selection)) {
+        while (selection == null || !sortedOptions.containsKey(selection)) {
             System.out.print(ConsoleColors.colorizeAndBold(
                     LocaleManager.getMessage("INPUT_SELECT_INVALID", sortedOptions.keySet().toString()), "red"));
-            selection = scanner.nextInt();
-            scanner.nextLine();
+            selection = parseInteger(readLine("INPUT_SELECT_ENTER"));
         }
 
         return selection;
@@ -90,15 +122,12 @@ public class InputManager {
      * @return a string input by the user
      */
     public static String String(String promptKey) {
-        String prompt = getPromptFromKey(promptKey);
-        System.out.println("\n\n" + prompt);
-        System.out.println("=".repeat(prompt.length()));
-        System.out.print(LocaleManager.getMessage("INPUT_VALUE_ENTER"));
-        return scanner.nextLine().trim();
+        printPrompt(promptKey);
+        return readLine("INPUT_VALUE_ENTER").trim();
     }
 
     /**
-     * Uses recursion to prompt the user for a string input within a specified range.
+     * Prompts the user for a string input within a specified range.
      * 
      * @param promptKey the message to display to the user
      * @param minChars the minimum number of characters
@@ -126,41 +155,31 @@ public class InputManager {
      * @returns a list of strings input by the user
      */
     public static ArrayList<String> StringArray(String promptKey, ArrayList<String> validArrayList) {
-        String prompt = getPromptFromKey(promptKey);
-        System.out.println("\n\n" + prompt);
-        System.out.println("=".repeat(prompt.length()));
-        System.out.print(LocaleManager.getMessage("INPUT_VALUE_ENTER"));
-        String input = scanner.nextLine().trim();
-
-        // Check for empty input
-        if (input.isEmpty()) {
-            System.out
-                    .println(ConsoleColors.colorizeAndBold(LocaleManager.getMessage("INPUT_VALUE_ARRAY_EMPTY"), "red"));
+        while (true) {
+            printPrompt(promptKey);
+            String errorKey = null;
+            ArrayList<String> stringList = new ArrayList<>();
 
-            return StringArray(promptKey, validArrayList);
-        }
-
-        String[] inputArray = input.split(",");
-        ArrayList<String> stringList = new ArrayList<>();
-
-        for (String s : inputArray) {
-            // Check for empty values within the array
-            if (s.trim().isEmpty()) {
-                System.out.println(ConsoleColors.colorizeAndBold(LocaleManager.getMessage("INPUT_VALUE_INVALID"), "red"));
-                return StringArray(promptKey, validArrayList);
+            for (String s : splitValues(readLine("INPUT_VALUE_ENTER"))) {
+                // Check for empty values within the array
+                if (s.isEmpty()) {
+                    errorKey = "INPUT_VALUE_INVALID";
+                    break;
+                }
+                if (!validArrayList.contains(s)) {
+                    errorKey = "INPUT_VALUE_ARRAY_NOT_IN_LIST";
+                    break;
+                }
+                stringList.add(s);
             }
-            stringList.add(s.trim());
-        }
-
-        for (String s : stringList) {
-            if (!validArrayList.contains(s)) {
-                System.out.println(ConsoleColors
-                        .colorizeAndBold(LocaleManager.getMessage("INPUT_VALUE_ARRAY_NOT_IN_LIST"), "red"));
-                return StringArray(promptKey, validArrayList);
+            if (stringList.isEmpty() && errorKey == null) {
+                errorKey = "INPUT_VALUE_ARRAY_EMPTY";
             }
+            if (errorKey == null) {
+                return stringList;
+            }
+            System.out.println(ConsoleColors.colorizeAndBold(LocaleManager.getMessage(errorKey), "red"));
         }
-
-        return stringList;
     }
 
     /**
@@ -171,18 +190,13 @@ public class InputManager {
      * @return an integer input by the user
      */
     public static int Integer(String promptKey) {
-        String prompt = getPromptFromKey(promptKey);
-        System.out.println("\n\n" + prompt);
-        System.out.println("=".repeat(prompt.length()));
-        System.out.print(LocaleManager.getMessage("INPUT_VALUE_ENTER"));
-        try {
-            int input = scanner.nextInt();
-            scanner.nextLine();
-            return input;
-        } catch (Exception e) {
+        while (true) {
+            printPrompt(promptKey);
+            Integer input = parseInteger(readLine("INPUT_VALUE_ENTER"));
+            if (input != null) {
+                return input;
+            }
             System.out.println(ConsoleColors.colorizeAndBold(LocaleManager.getMessage("INPUT_VALUE_INVALID"), "red"));
-            scanner.nextLine(); // Clear the buffer
-            return Integer(promptKey);
         }
     }
 
@@ -215,40 +229,28 @@ public class InputManager {
      * @returns a list of integers input by the user
      */
     public static ArrayList<Integer> IntegerArray(String promptKey) {
-        String prompt = getPromptFromKey(promptKey);
-        System.out.println("\n\n" + prompt);
-        System.out.println("=".repeat(prompt.length()));
-        System.out.print(LocaleManager.getMessage("INPUT_VALUE_ENTER"));
-        String input = scanner.nextLine().trim();
-
-        // Check for empty input
-        if (input.isEmpty()) {
-            System.out
-                    .println(ConsoleColors.colorizeAndBold(LocaleManager.getMessage("INPUT_VALUE_ARRAY_EMPTY"), "red"));
-
-            return IntegerArray(promptKey);
-        }
-
-        String[] inputArray = input.split(",");
-        ArrayList<Integer> intList = new ArrayList<>();
-
-        try {
-            for (String s : inputArray) {
-                // Check for empty values within the array
-                if (s.trim().isEmpty()) {
-                    System.out.println(
-                            ConsoleColors.colorizeAndBold(LocaleManager.getMessage("INPUT_VALUE_INVALID"), "red"));
-                    return IntegerArray(promptKey);
+        while (true) {
+            printPrompt(promptKey);
+            String errorKey = null;
+            ArrayList<Integer> intList = new ArrayList<>();
+
+            for (String s : splitValues(readLine("INPUT_VALUE_ENTER"))) {
+                // Empty values within the array are not integers either
+                Integer value = parseInteger(s);
+                if (value == null) {
+                    errorKey = "INPUT_VALUE_INVALID";
+                    break;
                 }
-                intList.add(Integer.parseInt(s.trim()));
+                intList.add(value);
             }
-        } catch (NumberFormatException e) {
-            System.out.println(ConsoleColors.colorizeAndBold(LocaleManager.getMessage("INPUT_VALUE_INVALID"), "red"));
-
-            return IntegerArray(promptKey);
+            if (intList.isEmpty() && errorKey == null) {
+                errorKey = "INPUT_VALUE_ARRAY_EMPTY";
+            }
+            if (errorKey == null) {
+                return intList;
+            }
+            System.out.println(ConsoleColors.colorizeAndBold(LocaleManager.getMessage(errorKey), "red"));
         }
-
-        return intList;
     }
 
     /**
@@ -263,12 +265,10 @@ public class InputManager {
     public static ArrayList<Integer> IntegerArray(String promptKey, Integer lowerBoundary, Integer upperBoundary) {
         ArrayList<Integer> input = IntegerArray(promptKey);
 
-        for (Integer i : input) {
-            if (i < lowerBoundary || i > upperBoundary) {
-                System.out.println(ConsoleColors.colorizeAndBold(
-                        LocaleManager.getMessage("INPUT_VALUE_OUT_OF_RANGE", lowerBoundary, upperBoundary), "red"));
-                return IntegerArray(promptKey, lowerBoundary, upperBoundary);
-            }
+        while (input.stream().anyMatch(i -> i < lowerBoundary || i > upperBoundary)) {
+            System.out.println(ConsoleColors.colorizeAndBold(
+                    LocaleManager.getMessage("INPUT_VALUE_OUT_OF_RANGE", lowerBoundary, upperBoundary), "red"));
+            input = IntegerArray(promptKey);
         }
 
         return input;
@@ -285,12 +285,10 @@ public class InputManager {
     public static ArrayList<Integer> IntegerArray(String promptKey, ArrayList<Integer> validValues) {
         ArrayList<Integer> input = IntegerArray(promptKey);
 
-        for (Integer i : input) {
-            if (!validValues.contains(i)) {
-                System.out.println(ConsoleColors
-                        .colorizeAndBold(LocaleManager.getMessage("INPUT_VALUE_ARRAY_NOT_IN_LIST"), "red"));
-                return IntegerArray(promptKey, validValues);
-            }
+        while (!validValues.containsAll(input)) {
+            System.out.println(ConsoleColors
+                    .colorizeAndBold(LocaleManager.getMessage("INPUT_VALUE_ARRAY_NOT_IN_LIST"), "red"));
+            input = IntegerArray(promptKey);
         }
 
         return input;
@@ -302,7 +300,7 @@ public class InputManager {
      */
     public static void EnterToContinue() {
         System.out.print(LocaleManager.getMessage("INPUT_ENTER_TO_CONTINUE"));
-        scanner.nextLine();
+        readLine("INPUT_ENTER_TO_CONTINUE");
     }
 
     /**
@@ -330,6 +328,53 @@ public class InputManager {
         return sortedMap;
     }
 
+    /**
+     * Prints a prompt with its underline and asks for a value.
+     * Time Complexity: O(n) where n is the length of the prompt
+     *
+     * @param promptKey the message to display to the user
+     */
+    private static void printPrompt(String promptKey) {
+        String prompt = getPromptFromKey(promptKey);
+        System.out.println("\n\n" + prompt);
+        System.out.println("=".repeat(prompt.length()));
+        System.out.print(LocaleManager.getMessage("INPUT_VALUE_ENTER"));
+    }
+
+    /**
+     * Splits a comma-separated input into its trimmed values.
+     * Time Complexity: O(n) where n is the length of the input
+     *
+     * @param input the input
+     * @return the values, none for an empty input
+     */
+    private static String[] splitValues(String input) {
+        String trimmed = input.trim();
+        if (trimmed.isEmpty()) {
+            return new String[0];
+        }
+        String[] values = trimmed.split(",");
+        for (int i = 0; i < values.length; i++) {
+            values[i] = values[i].trim();
+        }
+        return values;
+    }
+
+    /**
+     * Parses an integer input.
+     * Time Complexity: O(n) where n is the length of the input
+     *
+     * @param input the input
+     * @return the integer, or null if the input is not an integer
+     */
+    private static Integer parseInteger(String input) {
+        try {
+            return Integer.parseInt(input.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
     /**
      * Uses the LocaleManager to get the prompt message from the key.
      * Time Complexity: O(1)
@@ -0,0 +1,29 @@
+package utils.ConsoleHelpers;
+
+import java.util.NoSuchElementException;
+
+/**
+ * An InputSource supplies the lines the InputManager reads as answers to its prompts.
+ * Besides the ConsoleInputSource, the ScriptInputSource and MemoryInputSource replay prepared answers,
+ * so a whole session can run without a user, for example for load tests and regression timing.
+ */
+public interface InputSource {
+
+    /**
+     * Reads the next line.
+     *
+     * @return the line without the line break
+     * @throws NoSuchElementException if there are no more lines
+     */
+    String readLine();
+
+    /**
+     * Checks if a user types the lines. The lines of other sources are echoed after the prompt,
+     * so the output of a scripted session reads like an interactive one.
+     *
+     * @return true if the lines are typed by a user
+     */
+    default boolean isInteractive() {
+        return false;
+    }
+}
@@ -0,0 +1,60 @@
+package utils.ConsoleHelpers;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+
+/**
+ * Supplies prepared answers from memory, one per line, for example to drive a session from code.
+ * More lines can be added while the session runs.
+ */
+public class MemoryInputSource implements InputSource {
+    private final Queue<String> lines = new ArrayDeque<>();
+
+    /**
+     * Creates a source with the given answers.
+     *
+     * @param lines the answers, in the order they are read
+     */
+    public MemoryInputSource(List<String> lines) {
+        this.lines.addAll(lines);
+    }
+
+    /**
+     * Creates a source from a text with one answer per line.
+     *
+     * @param text the answers, separated by line breaks
+     * @return the source
+     * Time Complexity: O(n) where n is the length of the text
+     */
+    public static MemoryInputSource ofText(String text) {
+        return new MemoryInputSource(text.lines().toList());
+    }
+
+    /**
+     * Adds answers after the ones not read yet.
+     *
+     * @param more the answers to add
+     * Time Complexity: O(k) where k is the number of answers
+     */
+    public synchronized void add(String... more) {
+        lines.addAll(List.of(more));
+    }
+
+    /**
+     * Reads the next answer.
+     * Time Complexity: O(1)
+     *
+     * @return the answer
+     * @throws NoSuchElementException if all answers were read
+     */
+    @Override
+    public synchronized String readLine() {
+        String line = lines.poll();
+        if (line == null) {
+            throw new NoSuchElementException("No more input lines");
+        }
+        return line;
+    }
+}
@@ -0,0 +1,59 @@
+package utils.ConsoleHelpers;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads the answers of a session from a script file, one line per answer. Lines starting with # are comments
+ * and are skipped; an empty line is an answer, for example to continue after a prompt to press Enter.
+ * The file is read line by line, so scripts of any length take the same memory.
+ */
+public class ScriptInputSource implements InputSource {
+    public static final String COMMENT_PREFIX = "#";
+
+    private final Path path;
+    private final BufferedReader reader;
+    private int lineNumber = 0;
+
+    /**
+     * Opens a script file.
+     *
+     * @param path the script file, in UTF-8
+     * @throws IOException if the file cannot be opened
+     */
+    public ScriptInputSource(Path path) throws IOException {
+        this.path = path;
+        this.reader = Files.newBufferedReader(path, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads the next answer of the script. The file is closed once it is read to its end.
+     * Time Complexity: O(n) where n is the length of the line and the comments before it
+     *
+     * @return the line without the line break
+     * @throws NoSuchElementException if the script has no more answers
+     * @throws UncheckedIOException   if the file cannot be read
+     */
+    @Override
+    public synchronized String readLine() {
+        try {
+            String line;
+            do {
+                line = reader.readLine();
+                lineNumber++;
+            } while (line != null && line.startsWith(COMMENT_PREFIX));
+            if (line == null) {
+                reader.close();
+                throw new NoSuchElementException("The script " + path + " ended after " + (lineNumber - 1) + " lines");
+            }
+            return line;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read the script " + path, e);
+        }
+    }
+}
@@ -2,7 +2,10 @@ package utils.ConsoleHelpers;
 
 import data.Move;
 import data.Palmon;
+import data.SpeciesIndex;
+import data.SpeciesQuery;
 import data.Team;
+import service.DataStorageService;
 import utils.LocaleManager;
 
 import java.util.List;
@@ -10,46 +13,100 @@ import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 public class TableCreator {
+        private static final int NAME_WIDTH_CAP = 24;
+        private static final int STREAM_BLOCK_ROWS = 256;
+        private static final int MAX_LEVEL_DIGITS = 3;
 
         /**
-         * Prints a table of Palmons with their details.
+         * Prints a table of Palmons with their details. The table is streamed: the column widths are taken from
+         * the statistics of the catalogue, so the rows are laid out and written in blocks without collecting them.
          * Time Complexity: O(n) where n is the number of Palmons
          * 
          * @param palmons the list of Palmons to print
          */
         public static void printPalmons(List<Palmon> palmons) {
-                List<String> headers = Stream
-                                .of(
-                                                LocaleManager.getMessage("TABLE_HEADER_ID"),
-                                                LocaleManager.getMessage("TABLE_HEADER_NAME"),
-                                                LocaleManager.getMessage("TABLE_HEADER_PRIMARY_TYPE"),
-                                                LocaleManager.getMessage("TABLE_HEADER_SECONDARY_TYPE"),
-                                                LocaleManager.getMessage("TABLE_HEADER_LEVEL"),
-                                                LocaleManager.getMessage("TABLE_HEADER_HEIGHT"),
-                                                LocaleManager.getMessage("TABLE_HEADER_WEIGHT"),
-                                                "HP",
-                                                LocaleManager.getMessage("TABLE_HEADER_ATTACK"),
-                                                LocaleManager.getMessage("TABLE_HEADER_DEFENSE"),
-                                                LocaleManager.getMessage("TABLE_HEADER_SPEED"))
-                                .collect(Collectors.toList());
-                TablePrinter tablePrinter = new TablePrinter(headers);
+                SpeciesIndex index = DataStorageService.getSpeciesIndex();
+                TablePrinter tablePrinter = new TablePrinter(palmonHeaders(), new int[] {
+                                digits(index.getMaxValue(SpeciesIndex.ID)),
+                                nameWidth(index),
+                                index.getMaxTypeLength(),
+                                index.getMaxTypeLength(),
+                                MAX_LEVEL_DIGITS,
+                                digits(index.getMaxValue(SpeciesIndex.HEIGHT)),
+                                digits(index.getMaxValue(SpeciesIndex.WEIGHT)),
+                                digits(index.getMaxValue(SpeciesIndex.HP)),
+                                digits(index.getMaxValue(SpeciesIndex.ATTACK)),
+                                digits(index.getMaxValue(SpeciesIndex.DEFENSE)),
+                                digits(index.getMaxValue(SpeciesIndex.SPEED)) });
 
-                for (Palmon palmon : palmons) {
-                        tablePrinter.addRow(Stream.of(
+                ConsoleOutput.render(tablePrinter::renderHeader);
+                for (int start = 0; start < palmons.size(); start += STREAM_BLOCK_ROWS) {
+                        List<Palmon> block = palmons.subList(start, Math.min(palmons.size(), start + STREAM_BLOCK_ROWS));
+                        ConsoleOutput.render(out -> {
+                                for (Palmon palmon : block) {
+                                        tablePrinter.renderRow(out, palmonRow(palmon));
+                                }
+                        });
+                }
+                ConsoleOutput.render(tablePrinter::renderFooter);
+        }
+
+        /**
+         * Prints a page of the species a query selects, with a title line above the table.
+         * The column widths are taken from the statistics of the catalogue, so every page has the same layout
+         * and only the rows of the page are laid out.
+         * Time Complexity: O(r) where r is the number of species the query walks to reach the end of the page
+         * 
+         * @param query    the query that selects and sorts the species
+         * @param page     the number of the page, starting at 0
+         * @param pageSize the number of species on a page
+         * @param title    the line to print above the table
+         * @return the number of species on the page
+         */
+        public static int printSpeciesPage(SpeciesQuery query, int page, int pageSize, String title) {
+                SpeciesIndex index = DataStorageService.getSpeciesIndex();
+                List<String> headers = Stream.of(
+                                LocaleManager.getMessage("TABLE_HEADER_ID"),
+                                LocaleManager.getMessage("TABLE_HEADER_NAME"),
+                                LocaleManager.getMessage("TABLE_HEADER_PRIMARY_TYPE"),
+                                LocaleManager.getMessage("TABLE_HEADER_SECONDARY_TYPE"),
+                                LocaleManager.getMessage("TABLE_HEADER_HEIGHT"),
+                                LocaleManager.getMessage("TABLE_HEADER_WEIGHT"),
+                                "HP",
+                                LocaleManager.getMessage("TABLE_HEADER_ATTACK"),
+                                LocaleManager.getMessage("TABLE_HEADER_DEFENSE"),
+                                LocaleManager.getMessage("TABLE_HEADER_SPEED")).collect(Collectors.toList());
+                TablePrinter tablePrinter = new TablePrinter(headers, new int[] {
+                                digits(index.getMaxValue(SpeciesIndex.ID)),
+                                nameWidth(index),
+                                index.getMaxTypeLength(),
+                                index.getMaxTypeLength(),
+                                digits(index.getMaxValue(SpeciesIndex.HEIGHT)),
+                                digits(index.getMaxValue(SpeciesIndex.WEIGHT)),
+                                digits(index.getMaxValue(SpeciesIndex.HP)),
+                                digits(index.getMaxValue(SpeciesIndex.ATTACK)),
+                                digits(index.getMaxValue(SpeciesIndex.DEFENSE)),
+                                digits(index.getMaxValue(SpeciesIndex.SPEED)) });
+
+                int[] streamed = new int[1];
+                ConsoleOutput.render(out -> {
+                        ConsoleOutput.line(out, "");
+                        ConsoleOutput.line(out, ConsoleColors.colorizeAndBold(title, "green"));
+                        tablePrinter.renderHeader(out);
+                        streamed[0] = query.page(page, pageSize, palmon -> tablePrinter.renderRow(out, List.of(
                                         String.valueOf(palmon.getId()),
                                         palmon.getName(),
                                         palmon.getPrimaryType(),
                                         palmon.getSecondaryType(),
-                                        String.valueOf(palmon.getLevel()),
                                         String.valueOf(palmon.getHeight()),
                                         String.valueOf(palmon.getWeight()),
                                         String.valueOf(palmon.getHp()),
                                         String.valueOf(palmon.getAttack()),
                                         String.valueOf(palmon.getDefense()),
-                                        String.valueOf(palmon.getSpeed())).collect(Collectors.toList()));
-                }
-
-                tablePrinter.print();
+                                        String.valueOf(palmon.getSpeed()))));
+                        tablePrinter.renderFooter(out);
+                });
+                return streamed[0];
         }
 
         /**
@@ -59,35 +116,8 @@ public class TableCreator {
          * @param palmon the Palmon to print
          */
         public static void printPalmon(Palmon palmon) {
-                List<String> headers = Stream
-                                .of(
-                                                LocaleManager.getMessage("TABLE_HEADER_ID"),
-                                                LocaleManager.getMessage("TABLE_HEADER_NAME"),
-                                                LocaleManager.getMessage("TABLE_HEADER_PRIMARY_TYPE"),
-                                                LocaleManager.getMessage("TABLE_HEADER_SECONDARY_TYPE"),
-                                                LocaleManager.getMessage("TABLE_HEADER_LEVEL"),
-                                                LocaleManager.getMessage("TABLE_HEADER_HEIGHT"),
-                                                LocaleManager.getMessage("TABLE_HEADER_WEIGHT"),
-                                                "HP",
-                                                LocaleManager.getMessage("TABLE_HEADER_ATTACK"),
-                                                LocaleManager.getMessage("TABLE_HEADER_DEFENSE"),
-                                                LocaleManager.getMessage("TABLE_HEADER_SPEED"))
-                                .collect(Collectors.toList());
-                TablePrinter tablePrinter = new TablePrinter(headers);
-
-                tablePrinter.addRow(Stream.of(
-                                String.valueOf(palmon.getId()),
-                                palmon.getName(),
-                                palmon.getPrimaryType(),
-                                palmon.getSecondaryType(),
-                                String.valueOf(palmon.getLevel()),
-                                String.valueOf(palmon.getHeight()),
-                                String.valueOf(palmon.getWeight()),
-                                String.valueOf(palmon.getHp()),
-                                String.valueOf(palmon.getAttack()),
-                                String.valueOf(palmon.getDefense()),
-                                String.valueOf(palmon.getSpeed())).collect(Collectors.toList()));
-
+                TablePrinter tablePrinter = new TablePrinter(palmonHeaders());
+                tablePrinter.addRow(palmonRow(palmon));
                 tablePrinter.print();
         }
 
@@ -98,9 +128,8 @@ public class TableCreator {
          * @param palmon the Palmon whose fight moves are to be printed
          */
         public static void printPalmonFightMoves(Palmon palmon) {
-                System.out.println();
-                System.out.println(ConsoleColors.colorizeAndBold(
-                                LocaleManager.getMessage("TABLE_FIGHT_MOVES_FOR") + " " + palmon.getName(), "green"));
+                String title = ConsoleColors.colorizeAndBold(
+                                LocaleManager.getMessage("TABLE_FIGHT_MOVES_FOR") + " " + palmon.getName(), "green");
 
                 List<String> headers = Stream.of(
                                 LocaleManager.getMessage("TABLE_HEADER_NUMBER"),
@@ -124,7 +153,11 @@ public class TableCreator {
                                         move.getType()).collect(Collectors.toList()));
                 }
 
-                tablePrinter.print();
+                ConsoleOutput.render(out -> {
+                        ConsoleOutput.line(out, "");
+                        ConsoleOutput.line(out, title);
+                        tablePrinter.render(out);
+                });
         }
 
         /**
@@ -134,6 +167,17 @@ public class TableCreator {
          * @param team the team whose Palmons are to be printed
          */
         public static void printTeam(Team team) {
+                ConsoleOutput.render(out -> renderTeam(out, team));
+        }
+
+        /**
+         * Lays out the table of the details of the Palmons in a team, so it can be printed together with other output.
+         * Time Complexity: O(n) where n is the number of Palmons in the team
+         * 
+         * @param out  the builder to append the table to
+         * @param team the team whose Palmons are to be laid out
+         */
+        public static void renderTeam(StringBuilder out, Team team) {
                 List<String> headers = Stream.of(
                                 LocaleManager.getMessage("TABLE_HEADER_NAME"),
                                 LocaleManager.getMessage("TABLE_HEADER_PRIMARY_TYPE"),
@@ -165,6 +209,62 @@ public class TableCreator {
                                         defeated).collect(Collectors.toList()));
                 }
 
-                tablePrinter.print();
+                tablePrinter.render(out);
+        }
+
+        /**
+         * Gets the headers of the table of Palmon details.
+         * Time Complexity: O(1)
+         * 
+         * @return the headers
+         */
+        private static List<String> palmonHeaders() {
+                return Stream.of(
+                                LocaleManager.getMessage("TABLE_HEADER_ID"),
+                                LocaleManager.getMessage("TABLE_HEADER_NAME"),
+                                LocaleManager.getMessage("TABLE_HEADER_PRIMARY_TYPE"),
+                                LocaleManager.getMessage("TABLE_HEADER_SECONDARY_TYPE"),
+                                LocaleManager.getMessage("TABLE_HEADER_LEVEL"),
+                                LocaleManager.getMessage("TABLE_HEADER_HEIGHT"),
+                                LocaleManager.getMessage("TABLE_HEADER_WEIGHT"),
+                                "HP",
+                                LocaleManager.getMessage("TABLE_HEADER_ATTACK"),
+                                LocaleManager.getMessage("TABLE_HEADER_DEFENSE"),
+                                LocaleManager.getMessage("TABLE_HEADER_SPEED"))
+                                .collect(Collectors.toList());
+        }
+
+        /**
+         * Gets the row of the table of Palmon details for a Palmon.
+         * Time Complexity: O(1)
+         * 
+         * @param palmon the Palmon
+         * @return the cells of the row
+         */
+        private static List<String> palmonRow(Palmon palmon) {
+                return List.of(
+                                String.valueOf(palmon.getId()),
+                                palmon.getName(),
+                                palmon.getPrimaryType(),
+                                palmon.getSecondaryType(),
+                                String.valueOf(palmon.getLevel()),
+                                String.valueOf(palmon.getHeight()),
+                                String.valueOf(palmon.getWeight()),
+                                String.valueOf(palmon.getHp()),
+                                String.valueOf(palmon.getAttack()),
+                                String.valueOf(palmon.getDefense()),
+                                String.valueOf(palmon.getSpeed()));
+        }
+
+        /**
+         * Gets the width of the name column: the longest name of the catalogue, capped so a single long
+         * name does not widen every page.
+         */
+        private static int nameWidth(SpeciesIndex index) {
+                return Math.min(index.getMaxNameLength(), NAME_WIDTH_CAP);
+        }
+
+        private static int digits(int value) {
+                return String.valueOf(value).length();
         }
 }
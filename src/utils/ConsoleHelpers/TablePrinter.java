@@ -3,7 +3,15 @@ package utils.ConsoleHelpers;
 import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * The TablePrinter class lays out tables with a column width that fits every cell.
+ * Tables of collected rows take the widths from their rows. In the streaming mode the widths are given
+ * up front, for example from the statistics of the catalogue, and rows are laid out one by one with
+ * renderHeader, renderRow and renderFooter without being kept; longer cells are cut to the width.
+ */
 public class TablePrinter {
+    private static final String ELLIPSIS = "...";
+
     private final List<String> headers;
     private final List<List<String>> rows;
     private final int[] columnWidths;
@@ -15,11 +23,26 @@ public class TablePrinter {
      * @param headers the headers of the table
      */
     public TablePrinter(List<String> headers) {
+        this(headers, new int[headers.size()]);
+    }
+
+    /**
+     * Creates a new TablePrinter for streaming rows, with the given widths of its columns.
+     * A column is never narrower than its header.
+     * Time Complexity: O(n) where n is the number of headers
+     * 
+     * @param headers      the headers of the table
+     * @param columnWidths the widths of the columns, in characters
+     */
+    public TablePrinter(List<String> headers, int[] columnWidths) {
+        if (columnWidths.length != headers.size()) {
+            throw new IllegalArgumentException("Column count does not match header size");
+        }
         this.headers = headers;
         this.rows = new ArrayList<>();
         this.columnWidths = new int[headers.size()];
         for (int i = 0; i < headers.size(); i++) {
-            columnWidths[i] = headers.get(i).length();
+            this.columnWidths[i] = Math.max(columnWidths[i], headers.get(i).length());
         }
     }
     
@@ -42,41 +65,85 @@ public class TablePrinter {
     }
     
     /**
-     * Prints the table to the console.
+     * Prints the table to the console with a single write.
      * Time Complexity: O(n * m) where n is the number of rows and m is the number of columns
      */
     public void print() {
-        printLine();
-        printRow(headers);
-        printLine();
+        ConsoleOutput.render(this::render);
+    }
+
+    /**
+     * Lays out the table, so it can be printed together with other output.
+     * Time Complexity: O(n * m) where n is the number of rows and m is the number of columns
+     *
+     * @param out the builder to append the table to
+     */
+    public void render(StringBuilder out) {
+        renderHeader(out);
         for (List<String> row : rows) {
-            printRow(row);
+            renderRow(out, row);
         }
-        printLine();
+        renderFooter(out);
     }
 
     /**
-     * Prints a line to the console. This is used to separate the table header, rows, and footer.
-     * Time Complexity: O(m) where m is the number of columns
+     * Lays out the header of the table, which starts a streamed table.
+     * Time Complexity: O(w) where w is the width of the table
+     *
+     * @param out the builder to append the header to
      */
-    private void printLine() {
+    public void renderHeader(StringBuilder out) {
+        renderLine(out);
+        renderRow(out, headers);
+        renderLine(out);
+    }
+
+    /**
+     * Lays out the footer of the table, which ends a streamed table.
+     * Time Complexity: O(w) where w is the width of the table
+     *
+     * @param out the builder to append the footer to
+     */
+    public void renderFooter(StringBuilder out) {
+        renderLine(out);
+    }
+
+    /**
+     * Lays out a line that separates the table header, rows, and footer.
+     * Time Complexity: O(w) where w is the width of the table
+     *
+     * @param out the builder to append the line to
+     */
+    private void renderLine(StringBuilder out) {
         for (int width : columnWidths) {
-            System.out.print("+");
-            System.out.print("-".repeat(width + 2));
+            out.append('+');
+            ConsoleOutput.repeat(out, '-', width + 2);
         }
-        System.out.println("+");
+        ConsoleOutput.line(out, "+");
     }
 
     /**
-     * Prints a row to the console.
-     * Time Complexity: O(m) where m is the number of columns
+     * Lays out a row, padding every cell to the width of its column. Cells that are wider than their
+     * column are cut and end with an ellipsis.
+     * Time Complexity: O(w) where w is the width of the table
      * 
-     * @param row the row to print
+     * @param out the builder to append the row to
+     * @param row the row to lay out
      */
-    private void printRow(List<String> row) {
+    public void renderRow(StringBuilder out, List<String> row) {
+        if (row.size() != headers.size()) {
+            throw new IllegalArgumentException("Row size does not match header size");
+        }
         for (int i = 0; i < row.size(); i++) {
-            System.out.printf("| %-" + columnWidths[i] + "s ", row.get(i));
+            String cell = String.valueOf(row.get(i));
+            if (cell.length() > columnWidths[i]) {
+                cell = columnWidths[i] > ELLIPSIS.length()
+                        ? cell.substring(0, columnWidths[i] - ELLIPSIS.length()) + ELLIPSIS
+                        : cell.substring(0, columnWidths[i]);
+            }
+            out.append("| ").append(cell);
+            ConsoleOutput.repeat(out, ' ', columnWidths[i] - cell.length() + 1);
         }
-        System.out.println("|");
+        ConsoleOutput.line(out, "|");
     }
 }
@@ -1,40 +1,204 @@
 package utils.DataHandling;
 
 import java.io.IOException;
-import java.nio.file.Files;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Paths;
-import java.util.stream.Stream;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * The CSVReader class is responsible for reading CSV files and parsing their content using a provided DataParser.
- * Implements Runnable to allow concurrent execution.
+ * The file is memory-mapped and tokenized in place; every line is handed to the parser as a CSVRecord cursor.
+ * If a pool is given, files larger than the chunk size are split into newline-aligned byte ranges that are
+ * parsed in parallel into partial parsers, which are then merged in file order.
+ * Implements Runnable to allow concurrent execution; errors are propagated to the caller instead of being swallowed.
  */
 public class CSVReader implements Runnable {
+    public static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+
     private final String path;
     private final DataParser parser;
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+    private final LongAdder rows = new LongAdder();
+    private volatile boolean cancelled;
 
     /**
      * Constructs a CSVReader with the specified file path and data parser.
-     * 
+     *
      * @param path   the path to the CSV file
      * @param parser the data parser to process each line of the CSV file
      */
     public CSVReader(String path, DataParser parser) {
+        this(path, parser, null, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Constructs a CSVReader that parses large files in chunks on the given pool.
+     *
+     * @param path      the path to the CSV file
+     * @param parser    the data parser to process each line of the CSV file
+     * @param pool      the pool to parse the chunks on, or null to parse the file sequentially
+     * @param chunkSize the number of bytes up to which a range is parsed without splitting it further
+     */
+    public CSVReader(String path, DataParser parser, ForkJoinPool pool, int chunkSize) {
         this.path = path;
         this.parser = parser;
+        this.pool = pool;
+        this.chunkSize = chunkSize;
     }
 
     /**
      * Reads the CSV file, skips the header, and processes each line using the provided parser.
-     * Time Complexity: O(n) where n is the number of lines in the CSV file
+     *
+     * @throws UncheckedIOException if the file cannot be read
+     * Time Complexity: O(n / p) where n is the size of the CSV file and p the parallelism of the pool
      */
     @Override
     public void run() {
-        try (Stream<String> entries = Files.lines(Paths.get(path))) {
-            entries.skip(1) // Skip header
-                   .forEach(entry -> parser.processLine(entry.split(";")));
+        try {
+            read();
         } catch (IOException e) {
-            System.out.println("@CSVReader: Error " + e.getMessage());
+            throw new UncheckedIOException("Could not read " + path, e);
+        }
+    }
+
+    /**
+     * Reads the CSV file, skips the header, and processes each line using the provided parser.
+     *
+     * @throws IOException           if the file cannot be read
+     * @throws CancellationException if the reader was cancelled
+     * Time Complexity: O(n / p) where n is the size of the CSV file and p the parallelism of the pool
+     */
+    public void read() throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException(path + " is larger than 2 GB");
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            int end = buffer.limit();
+            int start = nextLine(buffer, 0, end); // Skip header
+            if (pool == null || end - start <= chunkSize) {
+                checkCancelled();
+                rows.add(parse(buffer, start, end, parser));
+            } else {
+                parser.merge(pool.invoke(new ChunkTask(buffer, start, end)));
+            }
+        }
+    }
+
+    /**
+     * Stops the reader before it parses its next chunk. A chunk that is being parsed is finished first.
+     * Time Complexity: O(1)
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    private void checkCancelled() {
+        if (cancelled) {
+            throw new CancellationException("Reading " + path + " was cancelled");
+        }
+    }
+
+    /**
+     * Gets the number of lines that were parsed so far, without the header and empty lines.
+     *
+     * @return the number of rows
+     * Time Complexity: O(1)
+     */
+    public long getRows() {
+        return rows.sum();
+    }
+
+    /**
+     * Parses the lines between two offsets of a buffer. Empty lines are skipped and a trailing
+     * carriage return is not part of the last field.
+     *
+     * @param buffer the buffer holding the CSV file
+     * @param start  the offset of the first line to parse
+     * @param end    the offset after the last byte to parse
+     * @param parser the parser to hand the lines to
+     * @return the number of lines that were parsed
+     * Time Complexity: O(n) where n is the number of bytes between the offsets
+     */
+    static int parse(ByteBuffer buffer, int start, int end, DataParser parser) {
+        CSVRecord record = new CSVRecord(buffer);
+        int lines = 0;
+        int lineStart = start;
+        while (lineStart < end) {
+            int lineEnd = lineStart;
+            while (lineEnd < end && buffer.get(lineEnd) != '\n') {
+                lineEnd++;
+            }
+            int contentEnd = lineEnd;
+            if (contentEnd > lineStart && buffer.get(contentEnd - 1) == '\r') {
+                contentEnd--;
+            }
+            if (contentEnd > lineStart) {
+                record.reset(lineStart, contentEnd);
+                parser.processLine(record);
+                lines++;
+            }
+            lineStart = lineEnd + 1;
+        }
+        return lines;
+    }
+
+    /**
+     * Finds the start of the line after the given offset.
+     *
+     * @param buffer the buffer holding the CSV file
+     * @param offset the offset to start searching at
+     * @param end    the offset after the last byte of the buffer
+     * @return the offset after the next line break, or end if there is none
+     * Time Complexity: O(l) where l is the length of the line
+     */
+    static int nextLine(ByteBuffer buffer, int offset, int end) {
+        while (offset < end && buffer.get(offset) != '\n') {
+            offset++;
+        }
+        return Math.min(offset + 1, end);
+    }
+
+    /**
+     * Parses a byte range of the file into a partial parser. Ranges larger than the chunk size are
+     * split at the first line break after their middle, so no line is cut in two.
+     */
+    // ForkJoinTask is Serializable, but the tasks are never serialized
+    @SuppressWarnings("serial")
+    private class ChunkTask extends RecursiveTask<DataParser> {
+        private final ByteBuffer buffer;
+        private final int start;
+        private final int end;
+
+        ChunkTask(ByteBuffer buffer, int start, int end) {
+            this.buffer = buffer;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected DataParser compute() {
+            int middle = nextLine(buffer, start + (end - start) / 2, end);
+            if (end - start <= chunkSize || middle >= end) {
+                checkCancelled();
+                DataParser partial = parser.newPartial();
+                rows.add(parse(buffer.duplicate(), start, end, partial));
+                return partial;
+            }
+            ChunkTask left = new ChunkTask(buffer, start, middle);
+            left.fork();
+            DataParser right = new ChunkTask(buffer, middle, end).compute();
+            DataParser merged = left.join();
+            merged.merge(right);
+            return merged;
         }
     }
 }
@@ -0,0 +1,130 @@
+package utils.DataHandling;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The CSVRecord class is a cursor over the fields of one line of a memory-mapped CSV file.
+ * Fields are read in order, directly from the buffer, without splitting the line into a String array.
+ * A single instance is reused for every line of a file.
+ */
+public class CSVRecord {
+    private static final byte SEPARATOR = ';';
+
+    private final ByteBuffer buffer;
+    private byte[] scratch = new byte[64];
+    private int position;
+    private int lineEnd;
+
+    /**
+     * Creates a cursor over the given buffer.
+     *
+     * @param buffer the buffer holding the CSV file
+     */
+    CSVRecord(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    /**
+     * Moves the cursor to the first field of the line between the given offsets.
+     *
+     * @param lineStart the offset of the first byte of the line
+     * @param lineEnd   the offset after the last byte of the line, excluding the line break
+     */
+    void reset(int lineStart, int lineEnd) {
+        this.position = lineStart;
+        this.lineEnd = lineEnd;
+    }
+
+    /**
+     * Checks if the line has another field.
+     *
+     * @return true if another field can be read
+     * Time Complexity: O(1)
+     */
+    public boolean hasNext() {
+        return position <= lineEnd;
+    }
+
+    /**
+     * Reads the next field as an integer.
+     *
+     * @return the parsed value
+     * @throws NumberFormatException if the field is empty or not a number
+     * Time Complexity: O(n) where n is the length of the field
+     */
+    public int nextInt() {
+        int start = position;
+        int end = fieldEnd(start);
+        int index = start;
+        boolean negative = index < end && buffer.get(index) == '-';
+        if (negative) {
+            index++;
+        }
+        if (index == end) {
+            throw new NumberFormatException("Expected a number but found \"" + text(start, end) + "\"");
+        }
+
+        int value = 0;
+        for (; index < end; index++) {
+            int digit = buffer.get(index) - '0';
+            if (digit < 0 || digit > 9) {
+                throw new NumberFormatException("Expected a number but found \"" + text(start, end) + "\"");
+            }
+            value = value * 10 + digit;
+        }
+        position = end + 1;
+        return negative ? -value : value;
+    }
+
+    /**
+     * Reads the next field as a UTF-8 string.
+     *
+     * @return the field, an empty string if the field is empty
+     * Time Complexity: O(n) where n is the length of the field
+     */
+    public String nextString() {
+        int start = position;
+        int end = fieldEnd(start);
+        position = end + 1;
+        return text(start, end);
+    }
+
+    /**
+     * Skips the next field.
+     * Time Complexity: O(n) where n is the length of the field
+     */
+    public void skip() {
+        position = fieldEnd(position) + 1;
+    }
+
+    /**
+     * Finds the end of the field that starts at the given offset.
+     *
+     * @param start the offset of the first byte of the field
+     * @return the offset of the separator after the field, or the end of the line
+     * @throws IllegalStateException if the line has no more fields
+     */
+    private int fieldEnd(int start) {
+        if (start > lineEnd) {
+            throw new IllegalStateException("Line has no more fields");
+        }
+        int end = start;
+        while (end < lineEnd && buffer.get(end) != SEPARATOR) {
+            end++;
+        }
+        return end;
+    }
+
+    private String text(int start, int end) {
+        int length = end - start;
+        if (length == 0) {
+            return "";
+        }
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        buffer.get(start, scratch, 0, length);
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+}
@@ -1,12 +1,14 @@
 package utils.DataHandling;
 
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Arrays;
 import java.util.concurrent.CopyOnWriteArrayList;
 
-import data.Move;
-import data.Palmon;
+import data.LearnsetIndex;
+import data.MoveSpec;
+import data.PalmonSpecies;
+import data.TypeChart;
+import data.TypeTable;
 
 /**
  * The DataParser abstract class defines the structure for parsing data from CSV files.
@@ -17,9 +19,9 @@ public abstract class DataParser {
     /**
      * Processes a single line from the CSV file.
      * 
-     * @param values an array of String values representing a line from the CSV file
+     * @param record a cursor over the fields of the line, only valid during the call
      */
-    abstract void processLine(String[] values);
+    abstract void processLine(CSVRecord record);
 
     /**
      * Retrieves the parsed data.
@@ -29,112 +31,178 @@ public abstract class DataParser {
     abstract Object getData();
 
     /**
-     * Parses a numeric value from a String.
-     * 
-     * @param attribute the String to parse
-     * @return the parsed integer value
+     * Creates an empty parser of the same kind, used to parse one chunk of a file in parallel.
+     *
+     * @return a new, empty parser
      */
-    private static int parseNumber(String attribute) {
-        return Integer.parseInt(attribute);
-    }
+    abstract DataParser newPartial();
+
+    /**
+     * Appends the data of a partial parser. Partials are merged in file order, so later lines
+     * overwrite earlier ones the same way they do when a file is parsed sequentially.
+     *
+     * @param partial a parser created by newPartial
+     */
+    abstract void merge(DataParser partial);
 
     /**
      * The EffectivityParser class extends DataParser to parse effectivity data from a CSV file.
-     * It maps attacker types to defender types with their corresponding effectivity values.
+     * It interns the attacker and defender types to their ordinals and builds a TypeChart from them.
      */
     public static class EffectivityParser extends DataParser {
-        private final HashMap<String, HashMap<String, Float>> data = new HashMap<>();
+        private int[] attackerTypes = new int[512];
+        private int[] defenderTypes = new int[512];
+        private float[] factors = new float[512];
+        private int entries = 0;
 
         @Override
-        public void processLine(String[] values) {
-            String attackerType = values[0];
-            String defenderType = values[1];
-            float effectivity = Float.parseFloat(values[2].replace("%", "")) / 100;
+        public void processLine(CSVRecord record) {
+            int attackerType = TypeTable.intern(record.nextString());
+            int defenderType = TypeTable.intern(record.nextString());
+            float effectivity = Float.parseFloat(record.nextString().replace("%", "")) / 100;
 
-            data.putIfAbsent(attackerType, new HashMap<>());
-            data.get(attackerType).put(defenderType, effectivity);
+            add(attackerType, defenderType, effectivity);
         }
 
         @Override
-        public HashMap<String, HashMap<String, Float>> getData() {
-            return data;
+        public EffectivityParser newPartial() {
+            return new EffectivityParser();
+        }
+
+        @Override
+        public void merge(DataParser partial) {
+            EffectivityParser other = (EffectivityParser) partial;
+            for (int i = 0; i < other.entries; i++) {
+                add(other.attackerTypes[i], other.defenderTypes[i], other.factors[i]);
+            }
+        }
+
+        private void add(int attackerType, int defenderType, float effectivity) {
+            if (entries == factors.length) {
+                attackerTypes = Arrays.copyOf(attackerTypes, entries * 2);
+                defenderTypes = Arrays.copyOf(defenderTypes, entries * 2);
+                factors = Arrays.copyOf(factors, entries * 2);
+            }
+            attackerTypes[entries] = attackerType;
+            defenderTypes[entries] = defenderType;
+            factors[entries] = effectivity;
+            entries++;
+        }
+
+        /**
+         * Builds the TypeChart. Must be called after all files are parsed, so the chart covers
+         * the types of every file.
+         */
+        @Override
+        public TypeChart getData() {
+            return TypeChart.fromEntries(TypeTable.size(), attackerTypes, defenderTypes, factors, entries);
         }
     }
 
     /**
      * The MoveParser class extends DataParser to parse move data from a CSV file.
-     * It stores a list of Move objects.
+     * It stores a list of MoveSpec objects.
      */
     public static class MoveParser extends DataParser {
-        private final ArrayList<Move> data = new ArrayList<>();
+        private final ArrayList<MoveSpec> data = new ArrayList<>();
 
         @Override
-        public void processLine(String[] values) {
-            int id = parseNumber(values[0]);
-            String name = StringNormalizer.name(values[1]);
-            int damage = parseNumber(values[2]);
-            int maxUsages = parseNumber(values[3]);
-            int accuracy = parseNumber(values[4]);
-            String type = values[5];
-
-            data.add(new Move(id, name, damage, maxUsages, accuracy, type));
+        public void processLine(CSVRecord record) {
+            int id = record.nextInt();
+            String name = StringNormalizer.name(record.nextString());
+            int damage = record.nextInt();
+            int maxUsages = record.nextInt();
+            int accuracy = record.nextInt();
+            int type = TypeTable.intern(record.nextString());
+
+            data.add(new MoveSpec(id, name, damage, maxUsages, accuracy, type));
         }
 
         @Override
-        public CopyOnWriteArrayList<Move> getData() {
+        public CopyOnWriteArrayList<MoveSpec> getData() {
             return new CopyOnWriteArrayList<>(data);
         }
+
+        @Override
+        public MoveParser newPartial() {
+            return new MoveParser();
+        }
+
+        @Override
+        public void merge(DataParser partial) {
+            data.addAll(((MoveParser) partial).data);
+        }
     }
 
     /**
      * The PalmonMoveParser class extends DataParser to parse the mapping of moves to Palmobs from a CSV file.
-     * It maps Palmon IDs to their moves with the corresponding level at which the move is learned.
+     * It collects the Palmon ID, move ID and learned-on level of every line; the LearnsetIndex is built
+     * from them once the Palmons and moves are known.
      */
     public static class PalmonMoveParser extends DataParser {
-        private final Map<Integer, Map<Integer, Integer>> data = new HashMap<>();
+        private final LearnsetIndex.Builder data = new LearnsetIndex.Builder();
 
         @Override
-        public void processLine(String[] values) {
-            int palmonID = parseNumber(values[0]);
-            int moveID = parseNumber(values[1]);
-            int learnedOnLevel = parseNumber(values[2]);
+        public void processLine(CSVRecord record) {
+            int palmonID = record.nextInt();
+            int moveID = record.nextInt();
+            int learnedOnLevel = record.nextInt();
 
-            data.putIfAbsent(palmonID, new HashMap<>());
-            data.get(palmonID).put(moveID, learnedOnLevel);
+            data.add(palmonID, moveID, learnedOnLevel);
         }
 
         @Override
-        public Map<Integer, Map<Integer, Integer>> getData() {
+        public LearnsetIndex.Builder getData() {
             return data;
         }
+
+        @Override
+        public PalmonMoveParser newPartial() {
+            return new PalmonMoveParser();
+        }
+
+        @Override
+        public void merge(DataParser partial) {
+            data.addAll(((PalmonMoveParser) partial).data);
+        }
     }
 
     /**
      * The PalmonParser class extends DataParser to parse Palmon data from a CSV file.
-     * It stores a list of Palmon objects.
+     * It stores a list of PalmonSpecies objects.
      */
     public static class PalmonParser extends DataParser {
-        private final ArrayList<Palmon> data = new ArrayList<>();
+        private final ArrayList<PalmonSpecies> data = new ArrayList<>();
 
         @Override
-        public void processLine(String[] values) {
-            int id = parseNumber(values[0]);
-            String name = StringNormalizer.name(values[1]);
-            int height = parseNumber(values[2]);
-            int weight = parseNumber(values[3]);
-            String type1 = values[4];
-            String type2 = values[5];
-            int hp = parseNumber(values[6]);
-            int attack = parseNumber(values[7]);
-            int defense = parseNumber(values[8]);
-            int speed = parseNumber(values[9]);
-
-            data.add(new Palmon(id, name, height, weight, type1, type2, hp, attack, defense, speed));
+        public void processLine(CSVRecord record) {
+            int id = record.nextInt();
+            String name = StringNormalizer.name(record.nextString());
+            int height = record.nextInt();
+            int weight = record.nextInt();
+            int type1 = TypeTable.intern(record.nextString());
+            int type2 = TypeTable.intern(record.nextString());
+            int hp = record.nextInt();
+            int attack = record.nextInt();
+            int defense = record.nextInt();
+            int speed = record.nextInt();
+
+            data.add(new PalmonSpecies(id, name, height, weight, type1, type2, hp, attack, defense, speed));
         }
 
         @Override
-        public ArrayList<Palmon> getData() {
+        public ArrayList<PalmonSpecies> getData() {
             return data;
         }
+
+        @Override
+        public PalmonParser newPartial() {
+            return new PalmonParser();
+        }
+
+        @Override
+        public void merge(DataParser partial) {
+            data.addAll(((PalmonParser) partial).data);
+        }
     }
 }
@@ -21,22 +21,46 @@ public class StringNormalizer {
     /**
      * Normalizes the given name by capitalizing the first letter of each word.
      * It also replaces hyphens with spaces and ensures each word is properly capitalized.
+     * The name is normalized in a single pass over its characters; if it is already normalized,
+     * it is returned as is.
      * 
      * @param name the name to normalize
      * @return the normalized name with each word capitalized
      * Time Complexity: O(n) where n is the length of the name
      */
     public static String name(String name) {
-        String temp = capitalizeFirst(name.toLowerCase().replace("-", " "));
-        if (temp.contains(" ")) {
-            String[] words = temp.split(" ");
-            StringBuilder sb = new StringBuilder();
-            for (String word : words) {
-                sb.append(capitalizeFirst(word)).append(" ");
+        int start = 0;
+        int end = name.length();
+        while (start < end && isTrimmed(name.charAt(start))) {
+            start++;
+        }
+        while (end > start && isTrimmed(name.charAt(end - 1))) {
+            end--;
+        }
+
+        char[] normalized = new char[end - start];
+        boolean changed = start > 0 || end < name.length();
+        boolean wordStart = true;
+        for (int i = start; i < end; i++) {
+            char c = name.charAt(i);
+            char n;
+            if (c == '-' || c == ' ') {
+                n = ' ';
+                wordStart = true;
+            } else {
+                n = wordStart ? Character.toUpperCase(Character.toLowerCase(c)) : Character.toLowerCase(c);
+                wordStart = false;
             }
-            return sb.toString().trim();
-        } else {
-            return temp;
+            changed |= n != c;
+            normalized[i - start] = n;
         }
+        return changed ? new String(normalized) : name;
+    }
+
+    /**
+     * Checks if a character is removed from the ends of a name: hyphens and the characters String.trim removes.
+     */
+    private static boolean isTrimmed(char c) {
+        return c <= ' ' || c == '-';
     }
 }
@@ -1,50 +1,104 @@
 package utils;
 
-import java.io.FileInputStream;
+import service.MetricsService;
+
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.text.MessageFormat;
+import java.text.NumberFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.MissingResourceException;
 import java.util.PropertyResourceBundle;
-import java.util.ResourceBundle;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import utils.ConsoleHelpers.InputManager;
 
 /**
  * Manages the localization of the application.
+ * The messages of all supported languages are loaded from the classpath at once, off the main thread, and kept
+ * in immutable maps. Loading fails if a language lacks a key that another one has, so a missing translation is
+ * found at startup and not when the message is first shown. Switching the locale then only replaces the current
+ * instance, so a message is always taken from a single locale, also while another thread switches.
+ * Every message is parsed once per locale and then reused: messages without placeholders are returned as they
+ * are, messages with plain placeholders are filled in from their pre-split segments.
  */
 public class LocaleManager {
-    private static LocaleManager instance;
-    private ResourceBundle messages;
-    private Locale currentLocale;
+    public static final List<Locale> SUPPORTED_LOCALES = List.of(Locale.ENGLISH, Locale.GERMAN);
+    public static final String BUNDLE_PATH = "resources/Localization/messages_";
+
+    // Running from the sources without a build, the bundles are only found below src
+    private static final Path SOURCE_DIRECTORY = Path.of("src");
+
+    private static CompletableFuture<Map<String, LocaleManager>> bundles;
+    private static volatile LocaleManager instance;
+    private final Locale currentLocale;
+    private final Map<String, String> messages;
+    private final Map<String, Message> cache = new ConcurrentHashMap<>();
 
     /**
-     * Creates a new LocaleManager with the given locale.
+     * Creates a new LocaleManager with the given locale and messages.
      * 
-     * @param locale the locale to use, as a 2-letter language code
-     * Time Complexity: O(1) if the properties file is cached by the OS, O(n) where n is the file size if it needs to be read from disk.
+     * @param locale   the locale of the messages
+     * @param messages the messages by key, immutable
      */
-    private LocaleManager(Locale locale) {
+    private LocaleManager(Locale locale, Map<String, String> messages) {
         this.currentLocale = locale;
-        String language = locale.getLanguage();
-        try (FileInputStream fis = new FileInputStream("src/resources/Localization/messages_" + language + ".properties")) {
-            this.messages = new PropertyResourceBundle(fis);
-        } catch (IOException e) {
-            e.printStackTrace();
+        this.messages = messages;
+    }
+
+    /**
+     * Starts loading the messages of all supported locales on the common ForkJoinPool.
+     * 
+     * @return a CompletableFuture that completes when the messages are loaded and validated
+     * Time Complexity: O(1), loading takes O(n) where n is the size of the properties files
+     */
+    public static CompletableFuture<Void> loadBundles() {
+        return loadBundles(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Starts loading the messages of all supported locales, unless they are loaded or being loaded already.
+     * The returned future completes exceptionally if a properties file cannot be read or if the locales
+     * do not have the same keys; loading is then tried again on the next call.
+     * 
+     * @param executor the executor to load the messages on
+     * @return a CompletableFuture that completes when the messages are loaded and validated
+     * Time Complexity: O(1), loading takes O(n) where n is the size of the properties files
+     */
+    public static synchronized CompletableFuture<Void> loadBundles(Executor executor) {
+        if (bundles == null || bundles.isCompletedExceptionally()) {
+            bundles = CompletableFuture.supplyAsync(LocaleManager::readBundles, executor);
         }
+        return bundles.thenApply(ignored -> null);
     }
 
     /**
-     * Initializes the LocaleManager with the given locale.
+     * Switches to the given locale, waiting for the messages if they are still being loaded.
      * 
-     * @param locale the locale to use, as a 2-letter language code
+     * @param locale the locale to use, only its language is considered
      * @return the LocaleManager instance
-     * Time Complexity: O(1) for creating an instance and loading properties.
+     * @throws IllegalArgumentException if the language is not supported
+     * Time Complexity: O(1) once the messages are loaded
      */
-    public static synchronized LocaleManager init(Locale locale) {
-        if (instance == null || instance.messages == null || !instance.currentLocale.equals(locale)) {
-            instance = new LocaleManager(locale);
+    public static LocaleManager init(Locale locale) {
+        LocaleManager manager = awaitBundles().get(locale.getLanguage());
+        if (manager == null) {
+            throw new IllegalArgumentException("No messages for the language " + locale.getLanguage());
         }
-        return instance;
+        instance = manager;
+        return manager;
     }
 
     /**
@@ -53,14 +107,104 @@ public class LocaleManager {
      * @param key the key of the message, as defined in the properties file
      * @param args the arguments to replace in the message
      * @return the formatted message
-     * Time Complexity: O(1) for fetching a message, O(n) for formatting where n is the length of the message.
+     * @throws MissingResourceException if there is no message for the key
+     * Time Complexity: O(1) for a message without placeholders, O(n) for formatting where n is the length of the
+     * message. A message is parsed only the first time it is used in a locale.
      */
     public static String getMessage(String key, Object... args) {
-        if (instance == null) {
+        LocaleManager current = instance;
+        if (current == null) {
             throw new IllegalStateException("LocaleManager is not initialized. Call init(Locale) first.");
         }
-        String pattern = instance.messages.getString(key);
-        return MessageFormat.format(pattern, args);
+        Message message = current.cache.get(key);
+        if (message == null) {
+            message = current.cache.computeIfAbsent(key, ignored -> Message.parse(current.getPattern(key)));
+        }
+        return message.format(args);
+    }
+
+    private String getPattern(String key) {
+        String pattern = messages.get(key);
+        if (pattern == null) {
+            throw new MissingResourceException("No message for " + key + " in " + currentLocale,
+                    LocaleManager.class.getName(), key);
+        }
+        return pattern;
+    }
+
+    /**
+     * Waits for the messages of all locales, starting to load them if that was not done yet.
+     *
+     * @return the LocaleManager of every supported language
+     * Time Complexity: O(1) once the messages are loaded
+     */
+    private static Map<String, LocaleManager> awaitBundles() {
+        CompletableFuture<Map<String, LocaleManager>> loading;
+        synchronized (LocaleManager.class) {
+            loadBundles();
+            loading = bundles;
+        }
+        try {
+            return loading.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+    }
+
+    /**
+     * Reads the messages of all supported locales and checks that every locale has every key.
+     *
+     * @return the LocaleManager of every supported language
+     * @throws UncheckedIOException if a properties file cannot be read
+     * @throws IllegalStateException if a locale lacks keys that another one has
+     * Time Complexity: O(n) where n is the size of the properties files
+     */
+    private static Map<String, LocaleManager> readBundles() {
+        long start = System.nanoTime();
+        Map<String, LocaleManager> managers = new HashMap<>();
+        TreeSet<String> allKeys = new TreeSet<>();
+        for (Locale locale : SUPPORTED_LOCALES) {
+            Map<String, String> messages = readBundle(locale.getLanguage());
+            allKeys.addAll(messages.keySet());
+            managers.put(locale.getLanguage(), new LocaleManager(locale, messages));
+        }
+
+        StringBuilder missing = new StringBuilder();
+        for (LocaleManager manager : managers.values()) {
+            TreeSet<String> missingKeys = new TreeSet<>(allKeys);
+            missingKeys.removeAll(manager.messages.keySet());
+            if (!missingKeys.isEmpty()) {
+                missing.append(' ').append(manager.currentLocale.getLanguage()).append(": ").append(missingKeys);
+            }
+        }
+        if (missing.length() > 0) {
+            throw new IllegalStateException("Messages are missing for" + missing);
+        }
+        MetricsService.histogram("ingest.messages.nanos").record(System.nanoTime() - start);
+        return Map.copyOf(managers);
+    }
+
+    /**
+     * Reads the messages of a language from the classpath, or from the sources if the game runs without a build.
+     *
+     * @param language the 2-letter language code
+     * @return the messages by key, immutable
+     * @throws UncheckedIOException if the properties file cannot be found or read
+     * Time Complexity: O(n) where n is the size of the properties file
+     */
+    private static Map<String, String> readBundle(String language) {
+        String name = BUNDLE_PATH + language + ".properties";
+        InputStream resource = LocaleManager.class.getClassLoader().getResourceAsStream(name);
+        try (InputStream stream = resource != null ? resource : Files.newInputStream(SOURCE_DIRECTORY.resolve(name))) {
+            PropertyResourceBundle bundle = new PropertyResourceBundle(stream);
+            Map<String, String> messages = new HashMap<>();
+            for (String key : bundle.keySet()) {
+                messages.put(key, bundle.getString(key));
+            }
+            return Map.copyOf(messages);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read the messages " + name, e);
+        }
     }
 
     /**
@@ -96,4 +240,105 @@ public class LocaleManager {
         }
         init(locale);
     }
+
+    /**
+     * A parsed message of the properties file. Most messages only hold text and plain placeholders such as {0};
+     * they are split into their text segments and argument indexes once and formatted by appending the segments
+     * and arguments, formatting numbers the way MessageFormat does. Messages with quotes or typed placeholders
+     * such as {0,number} are kept as a MessageFormat.
+     */
+    private static final class Message {
+        private final String pattern;
+        private final String[] segments;
+        private final int[] argumentIndexes;
+        private final MessageFormat format;
+        private NumberFormat numberFormat;
+
+        private Message(String pattern, String[] segments, int[] argumentIndexes, MessageFormat format) {
+            this.pattern = pattern;
+            this.segments = segments;
+            this.argumentIndexes = argumentIndexes;
+            this.format = format;
+        }
+
+        /**
+         * Parses a pattern of the properties file.
+         *
+         * @param pattern the pattern, in MessageFormat syntax
+         * @return the parsed message
+         * @throws IllegalArgumentException if the pattern is invalid
+         * Time Complexity: O(n) where n is the length of the pattern
+         */
+        static Message parse(String pattern) {
+            if (pattern.indexOf('\'') >= 0) {
+                return new Message(pattern, null, null, new MessageFormat(pattern));
+            }
+            List<String> segments = new ArrayList<>();
+            List<Integer> argumentIndexes = new ArrayList<>();
+            int start = 0;
+            for (int open = pattern.indexOf('{'); open >= 0; open = pattern.indexOf('{', start)) {
+                int close = pattern.indexOf('}', open);
+                String argument = close < 0 ? "" : pattern.substring(open + 1, close);
+                if (argument.isEmpty() || !argument.chars().allMatch(Character::isDigit) || argument.length() > 9) {
+                    // A typed or malformed placeholder, leave it to MessageFormat
+                    return new Message(pattern, null, null, new MessageFormat(pattern));
+                }
+                segments.add(pattern.substring(start, open));
+                argumentIndexes.add(Integer.parseInt(argument));
+                start = close + 1;
+            }
+            if (pattern.indexOf('}', start) >= 0) {
+                return new Message(pattern, null, null, new MessageFormat(pattern));
+            }
+            segments.add(pattern.substring(start));
+            return new Message(pattern, segments.toArray(new String[0]),
+                    argumentIndexes.stream().mapToInt(Integer::intValue).toArray(), null);
+        }
+
+        /**
+         * Formats the message with the given arguments. The result is the same as MessageFormat.format would give.
+         *
+         * @param args the arguments to replace in the message
+         * @return the formatted message
+         * Time Complexity: O(1) for messages without placeholders, O(n) otherwise where n is the length
+         * of the message
+         */
+        String format(Object[] args) {
+            if (format != null) {
+                // MessageFormat is not thread-safe, formatting holds the lock only for the few microseconds it takes
+                synchronized (format) {
+                    return format.format(args, new StringBuffer(), null).toString();
+                }
+            }
+            if (argumentIndexes.length == 0) {
+                return segments[0];
+            }
+            StringBuilder result = new StringBuilder(pattern.length() + 16 * argumentIndexes.length);
+            for (int i = 0; i < argumentIndexes.length; i++) {
+                result.append(segments[i]);
+                int index = argumentIndexes[i];
+                if (args == null || index >= args.length) {
+                    result.append('{').append(index).append('}');
+                } else if (args[index] instanceof Number) {
+                    result.append(formatNumber((Number) args[index]));
+                } else if (args[index] instanceof Date) {
+                    return MessageFormat.format(pattern, args);
+                } else {
+                    result.append(args[index]);
+                }
+            }
+            return result.append(segments[argumentIndexes.length]).toString();
+        }
+
+        /**
+         * Formats a number like a plain placeholder of MessageFormat does, with the number format of the
+         * default locale. The format is created once per message.
+         */
+        private synchronized String formatNumber(Number number) {
+            if (numberFormat == null) {
+                numberFormat = NumberFormat.getInstance(Locale.getDefault(Locale.Category.FORMAT));
+            }
+            return numberFormat.format(number);
+        }
+    }
 }
@@ -0,0 +1,38 @@
+package utils.Metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A counter that many threads can increment without contention, used for event counts such as battles.
+ */
+public class Counter {
+    private final LongAdder count = new LongAdder();
+
+    /**
+     * Adds one to the counter.
+     * Time Complexity: O(1)
+     */
+    public void increment() {
+        count.increment();
+    }
+
+    /**
+     * Adds the given amount to the counter.
+     *
+     * @param amount the amount to add
+     * Time Complexity: O(1)
+     */
+    public void add(long amount) {
+        count.add(amount);
+    }
+
+    /**
+     * Gets the current count. Increments that happen concurrently may or may not be included.
+     *
+     * @return the count
+     * Time Complexity: O(c) where c is the number of contended cells, at most the number of CPUs
+     */
+    public long get() {
+        return count.sum();
+    }
+}
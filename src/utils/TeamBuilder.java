@@ -1,38 +1,43 @@
 package utils;
 
 import data.Palmon;
+import data.PalmonSpecies;
 import data.Team;
 import service.DataStorageService;
 import utils.ConsoleHelpers.InputManager;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.Random;
-import java.util.stream.Collectors;
+import java.util.SplittableRandom;
 
 /**
  * The TeamBuilder class is responsible for creating teams for the user and the
  * opponent.
  */
 public class TeamBuilder {
-    private static final List<Palmon> availablePalmons = DataStorageService.getPalmons();
     private static int minLevel = 1;
     private static int maxLevel = 100;
     private static boolean customLevelRangeAsked = false;
+    private static final SplittableRandom random = new SplittableRandom();
 
     /**
      * Creates a team for the user. The user can choose to create a team randomly,
-     * by ID, or by type.
+     * by ID, or by type, and can browse the catalogue before choosing.
      * 
      * @returns the user's team
      *          Time Complexity: O(n) where n is the number of Palmons available.
      */
     public static Team createUserTeam() {
         int teamSize = 0;
-        int choice = InputManager.SelectWithIndex("TEAM_ASSEMBLE_METHOD_QUESTION",
+        int choice;
+        // Browsing the catalogue returns to the choice, so the user can look up IDs and types first
+        while ((choice = InputManager.SelectWithIndex("TEAM_ASSEMBLE_METHOD_QUESTION",
                 Map.of(1, LocaleManager.getMessage("TEAM_ASSEMBLE_METHOD_RANDOM"),
                         2, LocaleManager.getMessage("TEAM_ASSEMBLE_METHOD_ID"),
-                        3, LocaleManager.getMessage("TEAM_ASSEMBLE_METHOD_TYPE")));
+                        3, LocaleManager.getMessage("TEAM_ASSEMBLE_METHOD_TYPE"),
+                        4, LocaleManager.getMessage("TEAM_ASSEMBLE_METHOD_BROWSE")))) == 4) {
+            CatalogueBrowser.browse();
+        }
 
         if (choice != 2) {
             teamSize = getTeamSize();
@@ -66,12 +71,9 @@ public class TeamBuilder {
     public static Team createOpponentTeam() {
         int opponentTeamSize = InputManager.Integer("TEAM_ASSEMBLE_AMOUNT_ENEMY", 0, 100);
         if (opponentTeamSize == 0) {
-            opponentTeamSize = new Random().nextInt(6) + 1; // Random team size between 1 and 6
+            return generateTeam(1, 6, List.of()); // Random team size between 1 and 6
         }
-        Team opponentTeam = buildRandomTeam(opponentTeamSize);
-        setPalmonLevels(opponentTeam);
-        assignPalmonFightMoves(opponentTeam);
-        return opponentTeam;
+        return generateTeam(opponentTeamSize, opponentTeamSize, List.of());
     }
 
     /**
@@ -82,15 +84,7 @@ public class TeamBuilder {
      *         Time Complexity: O(k) where k is the size of the team.
      */
     private static Team buildRandomTeam(int size) {
-        Team team = new Team();
-        Random random = new Random();
-        List<Palmon> shuffled = new ArrayList<>(availablePalmons);
-        for (int i = 0; i < size; i++) {
-            team.addPalmon(shuffled.get(random.nextInt(shuffled.size())));
-        }
-        setPalmonLevels(team);
-        assignPalmonFightMoves(team);
-        return team;
+        return generateTeam(size, size, List.of());
     }
 
     /**
@@ -103,10 +97,10 @@ public class TeamBuilder {
     private static Team buildTeamById(List<Integer> ids) {
         Team team = new Team();
         for (Integer id : ids) {
-            availablePalmons.stream()
-                    .filter(palmon -> palmon.getId() == id)
-                    .findFirst()
-                    .ifPresent(team::addPalmon);
+            PalmonSpecies species = DataStorageService.getPalmonOrNull(id);
+            if (species != null) {
+                team.addPalmon(new Palmon(species));
+            }
         }
         setPalmonLevels(team);
         assignPalmonFightMoves(team);
@@ -119,21 +113,28 @@ public class TeamBuilder {
      * @param types the types of the Palmons
      * @param size  the size of the team
      * @return the team
-     *         Time Complexity: O(n * k) where n is the number of Palmons available
-     *         and k is the size of the team.
+     *         Time Complexity: O(t * n / 64 + k log n) where t is the number of types, n the number
+     *         of Palmons available and k is the size of the team.
      */
     private static Team buildTeamByType(List<String> types, int size) {
-        Team team = new Team();
-        Random random = new Random();
-        List<Palmon> filteredPalmons = availablePalmons.stream()
-                .filter(palmon -> types.contains(palmon.getPrimaryType()) || types.contains(palmon.getSecondaryType()))
-                .collect(Collectors.toList());
-        for (int i = 0; i < size; i++) {
-            team.addPalmon(filteredPalmons.get(random.nextInt(filteredPalmons.size())));
-        }
-        setPalmonLevels(team);
-        assignPalmonFightMoves(team);
-        return team;
+        return generateTeam(size, size, types);
+    }
+
+    /**
+     * Generates a team with the TeamGenerator, after asking for the level range if it was not asked yet.
+     * 
+     * @param minSize the smallest team size
+     * @param maxSize the largest team size
+     * @param types   the types to choose Palmons from, empty for all Palmons
+     * @return the team
+     *         Time Complexity: O(t * n / 64 + k log n) where t is the number of types, n the number
+     *         of Palmons available and k is the size of the team.
+     */
+    private static Team generateTeam(int minSize, int maxSize, List<String> types) {
+        askLevelRange();
+        TeamGenerator.Spec spec = TeamGenerator.Spec.ofTypes(minSize, maxSize, minLevel, maxLevel, types,
+                random.nextLong());
+        return new TeamGenerator(spec).nextTeam();
     }
 
     /**
@@ -154,16 +155,22 @@ public class TeamBuilder {
      *             team.
      */
     private static void setPalmonLevels(Team team) {
+        askLevelRange();
+        for (Palmon palmon : team.getPalmons()) {
+            palmon.setLevel(random.nextInt(minLevel, maxLevel + 1));
+        }
+    }
+
+    /**
+     * Asks the user for a custom level range, once.
+     * Time Complexity: O(1) for prompting the user.
+     */
+    private static void askLevelRange() {
         if (shouldSetCustomLevelRange()) {
             ArrayList<Integer> levels = getPalmonLevels();
             minLevel = levels.get(0);
             maxLevel = levels.get(1);
         }
-        Random random = new Random();
-        for (Palmon palmon : team.getPalmons()) {
-            int level = minLevel + random.nextInt(maxLevel - minLevel + 1);
-            palmon.setLevel(level);
-        }
     }
 
     /**
@@ -0,0 +1,257 @@
+package utils;
+
+import data.Palmon;
+import data.PalmonSpecies;
+import data.SpeciesSet;
+import data.Team;
+import data.TypeTable;
+import service.DataStorageService;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * The TeamGenerator class generates random teams from a Spec without any console interaction.
+ * Teams are generated as compact records of species ordinals and levels, which can be written to and read
+ * from a binary stream and only turned into Team objects when needed. A generator is not thread-safe;
+ * split() creates independent generators for parallel workers.
+ */
+public class TeamGenerator {
+    // Records store species ordinals as unsigned shorts
+    public static final int MAX_RECORD_SPECIES = 1 << 16;
+
+    private final Spec spec;
+    private final SplittableRandom random;
+    private final SpeciesSet candidates;
+    private final int speciesCount;
+
+    /**
+     * Creates a generator for the given spec, seeded with the seed of the spec.
+     *
+     * @param spec the spec of the teams to generate
+     * @throws IllegalArgumentException if no species matches the type filter of the spec
+     * Time Complexity: O(t * n / 64) where t is the number of types of the filter and n the number of species
+     */
+    public TeamGenerator(Spec spec) {
+        this(spec, new SplittableRandom(spec.getSeed()));
+    }
+
+    private TeamGenerator(Spec spec, SplittableRandom random) {
+        this.spec = spec;
+        this.random = random;
+        this.speciesCount = DataStorageService.getPalmons().size();
+        this.candidates = spec.getTypeOrdinals().length == 0
+                ? null
+                : DataStorageService.getTypeIndex().getSpecies(spec.getTypeOrdinals());
+        if (speciesCount == 0 || (candidates != null && candidates.isEmpty())) {
+            throw new IllegalArgumentException("No Palmon matches the team spec");
+        }
+    }
+
+    /**
+     * Creates a generator for the same spec with an independent random sequence.
+     *
+     * @return the new generator
+     * Time Complexity: O(t * n / 64) where t is the number of types of the filter and n the number of species
+     */
+    public TeamGenerator split() {
+        return new TeamGenerator(spec, random.split());
+    }
+
+    /**
+     * Generates the record of the next team.
+     *
+     * @param speciesOrdinals receives the species ordinals of the team, must hold at least the maximum size
+     * @param levels          receives the levels of the team, must hold at least the maximum size
+     * @return the size of the team
+     * Time Complexity: O(k log n) where k is the size of the team and n the number of species
+     */
+    public int next(int[] speciesOrdinals, int[] levels) {
+        int size = random.nextInt(spec.getMinSize(), spec.getMaxSize() + 1);
+        for (int i = 0; i < size; i++) {
+            speciesOrdinals[i] = candidates == null
+                    ? random.nextInt(speciesCount)
+                    : candidates.get(random.nextInt(candidates.size()));
+            levels[i] = random.nextInt(spec.getMinLevel(), spec.getMaxLevel() + 1);
+        }
+        return size;
+    }
+
+    /**
+     * Generates the next team.
+     *
+     * @return the team with levels and fight moves assigned
+     * Time Complexity: O(k log n) where k is the size of the team and n the number of species
+     */
+    public Team nextTeam() {
+        int[] speciesOrdinals = new int[spec.getMaxSize()];
+        int[] levels = new int[spec.getMaxSize()];
+        int size = next(speciesOrdinals, levels);
+        return toTeam(speciesOrdinals, levels, size);
+    }
+
+    /**
+     * Writes the records of the given number of teams. Every record is the team size as a short,
+     * followed by the species ordinal and the level of every Palmon as unsigned shorts.
+     *
+     * @param out   the output to write to
+     * @param count the number of teams to generate and write
+     * @throws IOException if writing fails
+     * @throws IllegalStateException if the catalogue has more species than an unsigned short can address
+     * Time Complexity: O(c * k log n) where c is the number of teams, k their size and n the number of species
+     */
+    public void write(DataOutput out, long count) throws IOException {
+        if (speciesCount > MAX_RECORD_SPECIES) {
+            throw new IllegalStateException("Team records address at most " + MAX_RECORD_SPECIES
+                    + " species, the catalogue has " + speciesCount);
+        }
+        int[] speciesOrdinals = new int[spec.getMaxSize()];
+        int[] levels = new int[spec.getMaxSize()];
+        for (long team = 0; team < count; team++) {
+            int size = next(speciesOrdinals, levels);
+            out.writeShort(size);
+            for (int i = 0; i < size; i++) {
+                out.writeShort(speciesOrdinals[i]);
+                out.writeShort(levels[i]);
+            }
+        }
+    }
+
+    /**
+     * Reads the next record written by write.
+     *
+     * @param in              the input to read from
+     * @param speciesOrdinals receives the species ordinals of the team, must hold at least the team size
+     * @param levels          receives the levels of the team, must hold at least the team size
+     * @return the size of the team, or -1 at the end of the input
+     * @throws IOException if reading fails or the input ends within a record
+     * Time Complexity: O(k) where k is the size of the team
+     */
+    public static int read(DataInput in, int[] speciesOrdinals, int[] levels) throws IOException {
+        int size;
+        try {
+            size = in.readUnsignedShort();
+        } catch (EOFException e) {
+            return -1;
+        }
+        for (int i = 0; i < size; i++) {
+            speciesOrdinals[i] = in.readUnsignedShort();
+            levels[i] = in.readUnsignedShort();
+        }
+        return size;
+    }
+
+    /**
+     * Turns a record into a team.
+     *
+     * @param speciesOrdinals the species ordinals of the team
+     * @param levels          the levels of the team
+     * @param size            the size of the team
+     * @return the team with levels and fight moves assigned
+     * @throws IllegalArgumentException if an ordinal is not in the catalogue, for example in a record written
+     *                                  for another catalogue
+     * Time Complexity: O(k log m) where k is the size of the team and m the number of moves per species
+     */
+    public static Team toTeam(int[] speciesOrdinals, int[] levels, int size) {
+        List<PalmonSpecies> palmons = DataStorageService.getPalmons();
+        Team team = new Team();
+        for (int i = 0; i < size; i++) {
+            if (speciesOrdinals[i] < 0 || speciesOrdinals[i] >= palmons.size()) {
+                throw new IllegalArgumentException("Species ordinal " + speciesOrdinals[i]
+                        + " is not in the catalogue of " + palmons.size() + " species");
+            }
+            Palmon palmon = new Palmon(palmons.get(speciesOrdinals[i]));
+            palmon.setLevel(levels[i]);
+            palmon.setFightMoves();
+            team.addPalmon(palmon);
+        }
+        return team;
+    }
+
+    /**
+     * The Spec class describes the teams a TeamGenerator generates: the range of the team size and of the
+     * levels, the types of which every Palmon has at least one, and the seed of the random sequence.
+     */
+    public static class Spec {
+        private final int minSize;
+        private final int maxSize;
+        private final int minLevel;
+        private final int maxLevel;
+        private final int[] typeOrdinals;
+        private final long seed;
+
+        /**
+         * Creates a spec.
+         *
+         * @param minSize      the smallest team size
+         * @param maxSize      the largest team size
+         * @param minLevel     the lowest level
+         * @param maxLevel     the highest level
+         * @param typeOrdinals the type ordinals to choose Palmons from, empty for all Palmons
+         * @param seed         the seed of the random sequence
+         * @throws IllegalArgumentException if a range is empty or out of bounds
+         */
+        public Spec(int minSize, int maxSize, int minLevel, int maxLevel, int[] typeOrdinals, long seed) {
+            if (minSize < 0 || minSize > maxSize || maxSize > Short.MAX_VALUE) {
+                throw new IllegalArgumentException("Invalid team size range " + minSize + "-" + maxSize);
+            }
+            if (minLevel < 0 || minLevel > maxLevel || maxLevel > Short.MAX_VALUE) {
+                throw new IllegalArgumentException("Invalid level range " + minLevel + "-" + maxLevel);
+            }
+            this.minSize = minSize;
+            this.maxSize = maxSize;
+            this.minLevel = minLevel;
+            this.maxLevel = maxLevel;
+            this.typeOrdinals = typeOrdinals.clone();
+            this.seed = seed;
+        }
+
+        /**
+         * Creates a spec that chooses from the Palmons of the given types.
+         *
+         * @param minSize  the smallest team size
+         * @param maxSize  the largest team size
+         * @param minLevel the lowest level
+         * @param maxLevel the highest level
+         * @param types    the type names to choose Palmons from, empty for all Palmons
+         * @param seed     the seed of the random sequence
+         * @return the spec
+         * Time Complexity: O(t) where t is the number of types
+         */
+        public static Spec ofTypes(int minSize, int maxSize, int minLevel, int maxLevel, List<String> types, long seed) {
+            int[] typeOrdinals = new int[types.size()];
+            for (int i = 0; i < typeOrdinals.length; i++) {
+                typeOrdinals[i] = TypeTable.ordinalOf(types.get(i));
+            }
+            return new Spec(minSize, maxSize, minLevel, maxLevel, typeOrdinals, seed);
+        }
+
+        public int getMinSize() {
+            return minSize;
+        }
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public int getMinLevel() {
+            return minLevel;
+        }
+
+        public int getMaxLevel() {
+            return maxLevel;
+        }
+
+        public int[] getTypeOrdinals() {
+            return typeOrdinals.clone();
+        }
+
+        public long getSeed() {
+            return seed;
+        }
+    }
+}